@@ -0,0 +1,75 @@
+package com.intellij.codeInspection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of DAO style sql files used by the benchmarks.
+ */
+final class SqlCorpus {
+
+    private static final String[] COLUMNS = {"id", "company_id", "user_id", "created_at", "status", "payload", "amount"};
+    private static final String[] TABLES = {"calls", "deals", "accounts", "users", "activities"};
+
+    private SqlCorpus() {
+    }
+
+    /**
+     * @param targetBytes        approximate size of the sql
+     * @param placeHolderDensity placeholders per hundred characters of predicates
+     * @param commentRatio       share of lines which are, or end with, a comment
+     * @param distinctParams     number of distinct placeholder names
+     */
+    static String generate(int targetBytes, int placeHolderDensity, double commentRatio, int distinctParams, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sql = new StringBuilder(targetBytes + 256);
+        while (sql.length() < targetBytes) {
+            String table = TABLES[random.nextInt(TABLES.length)];
+            sql.append("select ").append(COLUMNS[random.nextInt(COLUMNS.length)]).append(", payload::jsonb ->> 'name'\n")
+                    .append("from ").append(table).append(" t\n")
+                    .append("where t.company_id = :companyId\n");
+            int predicates = 1 + random.nextInt(8);
+            for (int i = 0; i < predicates; i++) {
+                appendPredicate(sql, random, placeHolderDensity, distinctParams);
+                if (random.nextDouble() < commentRatio) {
+                    appendComment(sql, random, distinctParams);
+                } else {
+                    sql.append('\n');
+                }
+            }
+            sql.append("and t.body = $body$ not a :placeholder $body$\n")
+                    .append("and t.note <> 'it''s :quoted';\n\n");
+        }
+        return sql.toString();
+    }
+
+    static List<String> params(int distinctParams) {
+        List<String> params = new ArrayList<>(distinctParams + 1);
+        params.add("companyId");
+        for (int i = 0; i < distinctParams; i++) {
+            params.add("param" + i);
+        }
+        return params;
+    }
+
+    private static void appendPredicate(StringBuilder sql, Random random, int placeHolderDensity, int distinctParams) {
+        String column = COLUMNS[random.nextInt(COLUMNS.length)];
+        if (random.nextInt(100) < placeHolderDensity) {
+            sql.append("  and t.").append(column).append(" = :param").append(random.nextInt(distinctParams));
+            if (random.nextBoolean()) {
+                sql.append("::text");
+            }
+        } else {
+            sql.append("  and t.").append(column).append(" is not null");
+        }
+    }
+
+    private static void appendComment(StringBuilder sql, Random random, int distinctParams) {
+        if (random.nextBoolean()) {
+            sql.append(" -- was :param").append(random.nextInt(distinctParams)).append('\n');
+        } else {
+            sql.append("\n/* disabled:\n  and t.status = :param").append(random.nextInt(distinctParams)).append("\n*/\n");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.intellij.codeInspection;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation rate of placeholder extraction and param matching over generated sql
+ * of 1 KB to 1 MB, with varying placeholder density and comments.
+ * <p>
+ * {@link #legacySplit} keeps the line split and regex pipeline the inspection used before the lexer as a baseline.
+ * Run with {@code java -jar target/benchmarks.jar}, any JMH option is accepted, e.g. {@code -p sizeBytes=1024}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlParamsBenchmarks {
+
+    private static final String LEGACY_SEPARATOR_REGEX = "[ ,)(\n;\r\t|=><]";
+
+    @Param({"1024", "16384", "262144", "1048576"})
+    public int sizeBytes;
+
+    @Param({"10", "60"})
+    public int placeHolderDensity;
+
+    @Param({"0.0", "0.3"})
+    public double commentRatio;
+
+    private String sql;
+    private SqlPlaceHolderSet placeHolders;
+    private List<String> params;
+
+    @Setup
+    public void setUp() {
+        sql = SqlCorpus.generate(sizeBytes, placeHolderDensity, commentRatio, 40, 42L);
+        placeHolders = SqlPlaceHolderSet.parse(sql);
+        params = SqlCorpus.params(40);
+    }
+
+    @Benchmark
+    public int scan() {
+        int[] count = {0};
+        SqlPlaceHolderLexer.scan(sql, (text, start, end) -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public SqlPlaceHolderSet extract() {
+        return SqlPlaceHolderSet.parse(sql);
+    }
+
+    /**
+     * Extraction streamed through the lexer window, as done for sql files not open in an editor.
+     */
+    @Benchmark
+    public SqlPlaceHolderSet extractStreamed() throws IOException {
+        return SqlPlaceHolderSet.parse(new StringReader(sql));
+    }
+
+    @Benchmark
+    public void match(Blackhole blackhole) {
+        SqlParamMatcher matcher = new SqlParamMatcher(placeHolders);
+        matcher.ignore("companyId");
+        for (String param : params) {
+            blackhole.consume(matcher.match(param));
+        }
+        blackhole.consume(matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Benchmark
+    public Set<String> legacySplit() {
+        Set<String> legacy = new LinkedHashSet<>();
+        for (String part : legacyFilterOutComments(sql).split(LEGACY_SEPARATOR_REGEX)) {
+            if (part.startsWith(":") && !part.startsWith("::")) {
+                String actualPart = part.substring(1);
+                int indexOfJsonIdentifier = actualPart.toLowerCase().indexOf("::");
+                legacy.add(indexOfJsonIdentifier > -1 ? actualPart.substring(0, indexOfJsonIdentifier) : actualPart);
+            }
+        }
+        return legacy;
+    }
+
+    private static String legacyFilterOutComments(String sql) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            int indexOfComment = line.indexOf("--");
+            sb.append(line, 0, indexOfComment > -1 ? indexOfComment : line.length()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Runs the benchmarks with the gc profiler, so allocation rate is reported next to throughput.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(SqlParamsBenchmarks.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.intellij.codeInspection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Matches the params bound to a single sql statement against the placeholders of its sql.
+ * Matched placeholders are tracked by index, so matching a param costs one hash lookup.
+ */
+public final class SqlParamMatcher {
+
+    private final SqlPlaceHolderSet placeHolders;
+    private final BitSet matched;
+    private final BitSet ignored;
+
+    public SqlParamMatcher(@NotNull SqlPlaceHolderSet placeHolders) {
+        this.placeHolders = placeHolders;
+        this.matched = new BitSet(placeHolders.size());
+        this.ignored = new BitSet(placeHolders.size());
+    }
+
+    /**
+     * Excludes a placeholder from matching, e.g. one bound implicitly by the db access.
+     */
+    public void ignore(@NotNull String placeHolder) {
+        int index = placeHolders.indexOf(placeHolder);
+        if (index >= 0) {
+            ignored.set(index);
+        }
+    }
+
+    /**
+     * @return true if the sql declares a placeholder for the param, which is then recorded as matched
+     */
+    public boolean match(@NotNull String param) {
+        int index = placeHolders.indexOf(param);
+        if (index < 0 || ignored.get(index)) {
+            return false;
+        }
+        matched.set(index);
+        return true;
+    }
+
+    /**
+     * @return placeholders neither matched nor ignored, in declaration order
+     */
+    @NotNull
+    public List<String> getUnmatchedPlaceHolders() {
+        List<String> unmatched = new ArrayList<>();
+        for (int i = 0; i < placeHolders.size(); i++) {
+            if (!matched.get(i) && !ignored.get(i)) {
+                unmatched.add(placeHolders.get(i));
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * @return placeholders which are not ignored, in declaration order
+     */
+    @NotNull
+    public List<String> getCandidatePlaceHolders() {
+        List<String> candidates = new ArrayList<>(placeHolders.size());
+        for (int i = 0; i < placeHolders.size(); i++) {
+            if (!ignored.get(i)) {
+                candidates.add(placeHolders.get(i));
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,433 @@
+package com.intellij.codeInspection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Single pass scanner extracting the named placeholders ({@code :name}) of a sql text.
+ * <p>
+ * The scanner understands line comments ({@code --}), nested block comments, quoted literals and identifiers,
+ * escape string constants ({@code E'...'}), dollar quoted bodies ({@code $tag$ ... $tag$}) and {@code ::} casts,
+ * none of which may declare a placeholder. Placeholders are reported as offsets into the scanned text,
+ * so no string is allocated unless the consumer asks for one.
+ * <p>
+ * In memory texts are indexed directly. The scanner only looks two characters back and as far ahead as the longest
+ * placeholder name or dollar quote tag, so large texts can also be streamed through a small buffer,
+ * see {@link #scan(Reader, PlaceHolderConsumer)}.
+ */
+public final class SqlPlaceHolderLexer {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * Receives every placeholder found by the lexer, in text order and including duplicates.
+     */
+    @FunctionalInterface
+    public interface PlaceHolderConsumer {
+        /**
+         * @param sql   scanned text, or the current window of a streamed text
+         * @param start offset of the first character of the placeholder name, right after the colon
+         * @param end   offset right after the last character of the placeholder name
+         */
+        void consume(@NotNull CharSequence sql, int start, int end);
+    }
+
+    private SqlPlaceHolderLexer() {
+    }
+
+    public static void scan(@NotNull CharSequence sql, @NotNull PlaceHolderConsumer consumer) {
+        final int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            final char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+            switch (c) {
+                case '-':
+                    i = next == '-' ? skipLineComment(sql, i + 2) : i + 1;
+                    break;
+                case '/':
+                    i = next == '*' ? skipBlockComment(sql, i + 2) : i + 1;
+                    break;
+                case '\'':
+                    i = skipQuoted(sql, i + 1, '\'', isEscapeStringPrefix(sql, i));
+                    break;
+                case '"':
+                    i = skipQuoted(sql, i + 1, '"', false);
+                    break;
+                case '$':
+                    i = i > 0 && isIdentifierPart(sql.charAt(i - 1)) ? i + 1 : skipDollarQuoted(sql, i);
+                    break;
+                case ':':
+                    if (next == ':') {
+                        // Cast such as ::jsonb, the type name that follows is skipped as a plain identifier
+                        i += 2;
+                    } else if (isIdentifierStart(next) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                        final int start = i + 1;
+                        int end = start + 1;
+                        while (end < length && isIdentifierPart(sql.charAt(end))) {
+                            end++;
+                        }
+                        consumer.consume(sql, start, end);
+                        i = end;
+                    } else {
+                        i++;
+                    }
+                    break;
+                default:
+                    i++;
+            }
+        }
+    }
+
+    /**
+     * Scans a text without holding it in memory, only a small window of it is buffered at any time.
+     * Reports the same placeholders as {@link #scan(CharSequence, PlaceHolderConsumer)} on the whole text.
+     * The reader is not closed.
+     */
+    public static void scan(@NotNull Reader sql, @NotNull PlaceHolderConsumer consumer) throws IOException {
+        try {
+            scan(new ReaderCursor(sql), consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static int skipLineComment(CharSequence sql, int from) {
+        final int length = sql.length();
+        int i = from;
+        while (i < length && sql.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlockComment(CharSequence sql, int from) {
+        final int length = sql.length();
+        int depth = 1;
+        int i = from;
+        while (i < length && depth > 0) {
+            final char c = sql.charAt(i);
+            final char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+            if (c == '*' && next == '/') {
+                depth--;
+                i += 2;
+            } else if (c == '/' && next == '*') {
+                depth++;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Skips a quoted literal or identifier starting right after its opening quote.
+     * A doubled quote stands for the quote itself, a backslash escapes the next character in escape strings.
+     */
+    private static int skipQuoted(CharSequence sql, int from, char quote, boolean backslashEscapes) {
+        final int length = sql.length();
+        int i = from;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isEscapeStringPrefix(CharSequence sql, int quoteOffset) {
+        if (quoteOffset == 0) {
+            return false;
+        }
+        final char prefix = sql.charAt(quoteOffset - 1);
+        return (prefix == 'E' || prefix == 'e') && (quoteOffset == 1 || !isIdentifierPart(sql.charAt(quoteOffset - 2)));
+    }
+
+    /**
+     * Skips a dollar quoted body if one starts at the given offset, otherwise just the dollar sign.
+     * Positional parameters such as {@code $1} are not dollar quotes since a tag can't start with a digit.
+     */
+    private static int skipDollarQuoted(CharSequence sql, int from) {
+        final int length = sql.length();
+        int tagEnd = from + 1;
+        if (tagEnd < length && isIdentifierStart(sql.charAt(tagEnd))) {
+            while (tagEnd < length && isIdentifierPart(sql.charAt(tagEnd))) {
+                tagEnd++;
+            }
+        }
+        if (tagEnd >= length || sql.charAt(tagEnd) != '$') {
+            return from + 1;
+        }
+        final int tagLength = tagEnd - from + 1;
+        for (int i = tagEnd + 1; i + tagLength <= length; i++) {
+            if (sql.charAt(i) == '$' && regionMatches(sql, i, from, tagLength)) {
+                return i + tagLength;
+            }
+        }
+        return length;
+    }
+
+    private static boolean regionMatches(CharSequence sql, int offset, int otherOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (sql.charAt(offset + i) != sql.charAt(otherOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same scan as {@link #scan(CharSequence, PlaceHolderConsumer)}, over the window of a streamed text.
+     */
+    private static void scan(ReaderCursor sql, PlaceHolderConsumer consumer) {
+        int c;
+        while ((c = sql.peek(0)) >= 0) {
+            final int next = sql.peek(1);
+            switch (c) {
+                case '-':
+                    sql.advance(next == '-' ? 2 : 1);
+                    if (next == '-') {
+                        skipLineComment(sql);
+                    }
+                    break;
+                case '/':
+                    sql.advance(next == '*' ? 2 : 1);
+                    if (next == '*') {
+                        skipBlockComment(sql);
+                    }
+                    break;
+                case '\'':
+                    final boolean backslashEscapes = isEscapeStringPrefix(sql);
+                    sql.advance(1);
+                    skipQuoted(sql, '\'', backslashEscapes);
+                    break;
+                case '"':
+                    sql.advance(1);
+                    skipQuoted(sql, '"', false);
+                    break;
+                case '$':
+                    if (isIdentifierPart(sql.behind(1))) {
+                        sql.advance(1);
+                    } else {
+                        skipDollarQuoted(sql);
+                    }
+                    break;
+                case ':':
+                    if (next == ':') {
+                        sql.advance(2);
+                    } else if (isIdentifierStart(next) && !isIdentifierPart(sql.behind(1))) {
+                        sql.advance(1);
+                        int length = 1;
+                        while (isIdentifierPart(sql.peek(length))) {
+                            length++;
+                        }
+                        sql.consume(length, consumer);
+                        sql.advance(length);
+                    } else {
+                        sql.advance(1);
+                    }
+                    break;
+                default:
+                    sql.advance(1);
+            }
+        }
+    }
+
+    private static void skipLineComment(ReaderCursor sql) {
+        int c;
+        while ((c = sql.peek(0)) >= 0 && c != '\n') {
+            sql.advance(1);
+        }
+    }
+
+    private static void skipBlockComment(ReaderCursor sql) {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = sql.peek(0)) >= 0) {
+            final int next = sql.peek(1);
+            if (c == '*' && next == '/') {
+                depth--;
+                sql.advance(2);
+            } else if (c == '/' && next == '*') {
+                depth++;
+                sql.advance(2);
+            } else {
+                sql.advance(1);
+            }
+        }
+    }
+
+    private static void skipQuoted(ReaderCursor sql, char quote, boolean backslashEscapes) {
+        int c;
+        while ((c = sql.peek(0)) >= 0) {
+            if (backslashEscapes && c == '\\') {
+                sql.advance(2);
+            } else if (c == quote) {
+                if (sql.peek(1) == quote) {
+                    sql.advance(2);
+                } else {
+                    sql.advance(1);
+                    return;
+                }
+            } else {
+                sql.advance(1);
+            }
+        }
+    }
+
+    /**
+     * @param sql cursor on an opening quote
+     */
+    private static boolean isEscapeStringPrefix(ReaderCursor sql) {
+        final int prefix = sql.behind(1);
+        return (prefix == 'E' || prefix == 'e') && !isIdentifierPart(sql.behind(2));
+    }
+
+    private static void skipDollarQuoted(ReaderCursor sql) {
+        int tagEnd = 1;
+        if (isIdentifierStart(sql.peek(tagEnd))) {
+            while (isIdentifierPart(sql.peek(tagEnd))) {
+                tagEnd++;
+            }
+        }
+        if (sql.peek(tagEnd) != '$') {
+            sql.advance(1);
+            return;
+        }
+        final int tagLength = sql.keepTag(tagEnd + 1);
+        sql.advance(tagLength);
+        int c;
+        while ((c = sql.peek(0)) >= 0) {
+            if (c == '$' && sql.matchesTag(tagLength)) {
+                sql.advance(tagLength);
+                return;
+            }
+            sql.advance(1);
+        }
+    }
+
+    private static boolean isIdentifierStart(int c) {
+        return c >= 0 && (Character.isLetter((char) c) || c == '_');
+    }
+
+    private static boolean isIdentifierPart(int c) {
+        return c >= 0 && (Character.isLetterOrDigit((char) c) || c == '_');
+    }
+
+    /**
+     * Position in a window of a streamed text, refilled as the cursor moves forward. Characters out of the text read as -1.
+     * The window keeps two characters behind the cursor and grows only for lookaheads longer than itself.
+     */
+    private static final class ReaderCursor {
+        private static final int KEPT_BEHIND = 2;
+
+        private final Reader reader;
+        private char[] buffer = new char[STREAM_BUFFER_SIZE];
+        private CharBuffer window = CharBuffer.wrap(buffer);
+        // The buffer holds the characters read so far from index 0 to windowEnd
+        private int windowEnd;
+        private int offset;
+        private boolean endOfText;
+        // Opening tag of the current dollar quote, which may leave the window long before its closing tag shows up
+        private char[] tag = new char[16];
+
+        private ReaderCursor(Reader reader) {
+            this.reader = reader;
+        }
+
+        int peek(int ahead) {
+            if (offset + ahead >= windowEnd && !fill(offset + ahead)) {
+                return -1;
+            }
+            // Filling may have moved the window, so the offset is read again
+            return buffer[offset + ahead];
+        }
+
+        int behind(int back) {
+            final int i = offset - back;
+            return i >= 0 ? buffer[i] : -1;
+        }
+
+        void advance(int count) {
+            offset += count;
+            if (offset > windowEnd && !fill(offset - 1)) {
+                offset = windowEnd;
+            }
+        }
+
+        /**
+         * Reports the placeholder name of the given length starting at the cursor.
+         */
+        void consume(int length, PlaceHolderConsumer consumer) {
+            consumer.consume(window, offset, offset + length);
+        }
+
+        /**
+         * Keeps the dollar quote tag of the given length starting at the cursor, reusing the tag buffer of previous quotes.
+         */
+        int keepTag(int length) {
+            if (length > tag.length) {
+                tag = Arrays.copyOf(tag, Math.max(length, tag.length * 2));
+            }
+            // The whole tag was peeked, so it lies in the window
+            System.arraycopy(buffer, offset, tag, 0, length);
+            return length;
+        }
+
+        boolean matchesTag(int length) {
+            for (int i = 0; i < length; i++) {
+                if (peek(i) != tag[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads until the buffer holds the character at the given offset.
+         *
+         * @return false if the text ends before it
+         */
+        private boolean fill(int required) {
+            while (required >= windowEnd && !endOfText) {
+                final int dropped = Math.min(Math.max(0, offset - KEPT_BEHIND), windowEnd);
+                if (dropped > 0) {
+                    // Drop characters the cursor can't look back at anymore
+                    System.arraycopy(buffer, dropped, buffer, 0, windowEnd - dropped);
+                    windowEnd -= dropped;
+                    offset -= dropped;
+                    required -= dropped;
+                } else if (windowEnd == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    window = CharBuffer.wrap(buffer);
+                }
+                try {
+                    final int read = reader.read(buffer, windowEnd, buffer.length - windowEnd);
+                    if (read < 0) {
+                        endOfText = true;
+                    } else {
+                        windowEnd += read;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return required < windowEnd;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.intellij.codeInspection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Immutable, distinct placeholders of a sql text in declaration order.
+ * Every placeholder has a stable index so matches can be tracked in a {@link BitSet}, see {@link SqlParamMatcher}.
+ */
+public final class SqlPlaceHolderSet extends AbstractSet<String> {
+
+    public static final SqlPlaceHolderSet EMPTY = new SqlPlaceHolderSet(new String[0], Collections.emptyMap());
+
+    private final String[] placeHolders;
+    private final Map<String, Integer> indices;
+
+    private SqlPlaceHolderSet(String[] placeHolders, Map<String, Integer> indices) {
+        this.placeHolders = placeHolders;
+        this.indices = indices;
+    }
+
+    /**
+     * Extracts the placeholders of a sql text, commented out and quoted ones excluded.
+     * Only the first occurrence of each placeholder allocates its name.
+     */
+    @NotNull
+    public static SqlPlaceHolderSet parse(@NotNull CharSequence sql) {
+        Collector collector = new Collector();
+        SqlPlaceHolderLexer.scan(sql, collector);
+        return collector.build();
+    }
+
+    /**
+     * Same as {@link #parse(CharSequence)} on a text streamed through a small buffer, the reader is not closed.
+     */
+    @NotNull
+    public static SqlPlaceHolderSet parse(@NotNull Reader sql) throws IOException {
+        Collector collector = new Collector();
+        SqlPlaceHolderLexer.scan(sql, collector);
+        return collector.build();
+    }
+
+    /**
+     * @return index of the placeholder, or -1 if the sql has no such placeholder
+     */
+    public int indexOf(String placeHolder) {
+        Integer index = indices.get(placeHolder);
+        return index != null ? index : -1;
+    }
+
+    @NotNull
+    public String get(int index) {
+        return placeHolders[index];
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indices.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+        return placeHolders.length;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.asList(placeHolders).iterator();
+    }
+
+    /**
+     * Accumulates placeholders reported by the lexer, possibly over several chunks of text.
+     * Repeated occurrences are looked up by hash in an open addressing table straight from the text,
+     * so only the first occurrence of each placeholder allocates its name.
+     */
+    static final class Collector implements SqlPlaceHolderLexer.PlaceHolderConsumer {
+        private final List<String> placeHolders = new ArrayList<>();
+        private String[] table = new String[16];
+
+        @Override
+        public void consume(@NotNull CharSequence sql, int start, int end) {
+            final int hash = hash(sql, start, end);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            for (String known = table[slot]; known != null; known = table[slot]) {
+                if (known.hashCode() == hash && known.length() == end - start && regionMatches(known, sql, start)) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            String placeHolder = sql.subSequence(start, end).toString();
+            table[slot] = placeHolder;
+            placeHolders.add(placeHolder);
+            if (placeHolders.size() * 2 > table.length) {
+                rehash();
+            }
+        }
+
+        /**
+         * Same hash as {@link String#hashCode()} so it can be compared with the cached hash of known names.
+         */
+        private static int hash(CharSequence sql, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + sql.charAt(i);
+            }
+            return hash;
+        }
+
+        private void rehash() {
+            table = new String[table.length * 2];
+            int mask = table.length - 1;
+            for (String placeHolder : placeHolders) {
+                int slot = placeHolder.hashCode() & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = placeHolder;
+            }
+        }
+
+        private static boolean regionMatches(String placeHolder, CharSequence sql, int start) {
+            for (int i = 0; i < placeHolder.length(); i++) {
+                if (placeHolder.charAt(i) != sql.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        SqlPlaceHolderSet build() {
+            if (placeHolders.isEmpty()) {
+                return EMPTY;
+            }
+            Map<String, Integer> indices = new HashMap<>(placeHolders.size() * 2);
+            for (int i = 0; i < placeHolders.size(); i++) {
+                indices.put(placeHolders.get(i), i);
+            }
+            return new SqlPlaceHolderSet(placeHolders.toArray(new String[0]), indices);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.intellij.codeInspection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SqlParamMatcherTest {
+
+    private final SqlParamMatcher matcher =
+            new SqlParamMatcher(SqlPlaceHolderSet.parse("where companyId = :companyId and a = :a and b = :b and c = :c"));
+
+    @Test
+    public void reportsUnmatchedPlaceHoldersInDeclarationOrder() {
+        assertTrue(matcher.match("b"));
+        assertEquals(Arrays.asList("companyId", "a", "c"), matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Test
+    public void rejectsParamsWithoutPlaceHolder() {
+        assertFalse(matcher.match("d"));
+        assertEquals(Arrays.asList("companyId", "a", "b", "c"), matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Test
+    public void matchesRepeatedParams() {
+        assertTrue(matcher.match("a"));
+        assertTrue(matcher.match("a"));
+        assertEquals(Arrays.asList("companyId", "b", "c"), matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Test
+    public void ignoredPlaceHoldersAreNeitherMatchedNorUnmatched() {
+        matcher.ignore("companyId");
+        assertFalse(matcher.match("companyId"));
+        assertEquals(Arrays.asList("a", "b", "c"), matcher.getUnmatchedPlaceHolders());
+        assertEquals(Arrays.asList("a", "b", "c"), matcher.getCandidatePlaceHolders());
+    }
+
+    @Test
+    public void ignoringAnUnknownPlaceHolderChangesNothing() {
+        matcher.ignore("d");
+        assertEquals(Arrays.asList("companyId", "a", "b", "c"), matcher.getCandidatePlaceHolders());
+        assertEquals(Arrays.asList("companyId", "a", "b", "c"), matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Test
+    public void candidatesIncludeMatchedPlaceHolders() {
+        assertTrue(matcher.match("a"));
+        assertEquals(Arrays.asList("companyId", "a", "b", "c"), matcher.getCandidatePlaceHolders());
+    }
+
+    @Test
+    public void nothingIsUnmatchedOnceEveryPlaceHolderIsBound() {
+        matcher.ignore("companyId");
+        for (String param : Arrays.asList("a", "b", "c")) {
+            assertTrue(matcher.match(param));
+        }
+        assertEquals(Collections.emptyList(), matcher.getUnmatchedPlaceHolders());
+    }
+
+    @Test
+    public void matchesNothingWithoutPlaceHolders() {
+        final SqlParamMatcher empty = new SqlParamMatcher(SqlPlaceHolderSet.EMPTY);
+        assertFalse(empty.match("a"));
+        empty.ignore("companyId");
+        assertEquals(Collections.emptyList(), empty.getUnmatchedPlaceHolders());
+        assertEquals(Collections.emptyList(), empty.getCandidatePlaceHolders());
+    }
+}
@@ -0,0 +1,159 @@
+package com.intellij.codeInspection;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The streamed scan must report the same placeholders as the scan of the whole text, whatever the chunks
+ * the reader returns. Texts are built so that window compaction and growth happen in the middle of every construct.
+ */
+public class SqlPlaceHolderLexerStreamingTest {
+
+    /**
+     * Size of the lexer window, see {@code SqlPlaceHolderLexer.STREAM_BUFFER_SIZE}.
+     */
+    private static final int WINDOW = 8192;
+
+    private static final String[] FRAGMENTS = {
+            " ", "\n", "a", "E", "e", "_", "1", ":", "::", "'", "''", "\"", "\\", "-", "--", "/", "/*", "*/", "*",
+            "$", "$$", "$t$", "$tag$", "$1", "x", "name", ":p", ":id", ":_x1", "E'", "e'\\'", ";", "[1:2]"
+    };
+
+    @Test
+    public void fuzzedTextsReadOneCharacterAtATime() throws IOException {
+        final Random random = new Random(20261016L);
+        for (int i = 0; i < 20_000; i++) {
+            assertSamePlaceHolders(randomSql(random, 1 + random.nextInt(40)), 1, random);
+        }
+    }
+
+    @Test
+    public void fuzzedTextsReadInRandomChunks() throws IOException {
+        final Random random = new Random(42L);
+        for (int i = 0; i < 20_000; i++) {
+            assertSamePlaceHolders(randomSql(random, 1 + random.nextInt(40)), 1 + random.nextInt(7), random);
+        }
+    }
+
+    @Test
+    public void fuzzedTextsLongerThanTheWindow() throws IOException {
+        final Random random = new Random(7L);
+        for (int i = 0; i < 200; i++) {
+            final String sql = randomSql(random, 3 * WINDOW);
+            assertSamePlaceHolders(sql, 1 + random.nextInt(3 * WINDOW), random);
+            assertSamePlaceHolders(sql, 1, random);
+        }
+    }
+
+    @Test
+    public void constructsStraddlingTheWindowEnd() throws IOException {
+        final String[] constructs = {
+                ":placeHolder ", "::jsonb :b ", "-- :x\n:y ", "/* /* :x */ :y */ :z ", "'it''s :x' :y ",
+                "E'\\' :x' :y ", "$tag$ :x $tag$ :y ", "$1 :y ", "a:b :c "
+        };
+        final Random random = new Random(3L);
+        for (String construct : constructs) {
+            // Every split of the construct across the first window end, and the two characters kept behind it
+            for (int shift = -construct.length() - 2; shift <= 2; shift++) {
+                final String sql = repeat('x', WINDOW + shift) + " " + construct + repeat(' ', 16);
+                assertSamePlaceHolders(sql, 1, random);
+                assertSamePlaceHolders(sql, 64, random);
+                assertSamePlaceHolders(sql, WINDOW, random);
+            }
+        }
+    }
+
+    @Test
+    public void placeHolderNameLongerThanTheWindow() throws IOException {
+        final String name = "p" + repeat('a', 3 * WINDOW);
+        final String sql = "select :" + name + " , :b from t where c = :" + name;
+        assertEquals(List.of(name, "b", name), streamed(sql, WINDOW, new Random(1L)));
+        assertSamePlaceHolders(sql, 1, new Random(1L));
+        assertSamePlaceHolders(sql, 1000, new Random(1L));
+    }
+
+    @Test
+    public void dollarTagLongerThanTheWindow() throws IOException {
+        final String tag = "$t" + repeat('g', 2 * WINDOW) + "$";
+        final String sql = ":a " + tag + " :inBody $$ :stillInBody " + tag + " :b";
+        assertEquals(List.of("a", "b"), streamed(sql, WINDOW, new Random(1L)));
+        assertSamePlaceHolders(sql, 1, new Random(1L));
+        assertSamePlaceHolders(sql, 777, new Random(1L));
+    }
+
+    @Test
+    public void unterminatedDollarTagLongerThanTheWindow() throws IOException {
+        final String sql = ":a $t" + repeat('g', 2 * WINDOW) + " :b";
+        assertEquals(List.of("a", "b"), streamed(sql, WINDOW, new Random(1L)));
+        assertSamePlaceHolders(sql, 1, new Random(1L));
+    }
+
+    @Test
+    public void emptyText() throws IOException {
+        assertEquals(Collections.emptyList(), streamed("", 1, new Random(1L)));
+    }
+
+    private static void assertSamePlaceHolders(String sql, int maxChunk, Random random) throws IOException {
+        final List<String> expected = new ArrayList<>();
+        SqlPlaceHolderLexer.scan(sql, (text, start, end) -> expected.add(text.subSequence(start, end).toString()));
+        assertEquals(abbreviate(sql), expected, streamed(sql, maxChunk, random));
+    }
+
+    private static List<String> streamed(String sql, int maxChunk, Random random) throws IOException {
+        final List<String> placeHolders = new ArrayList<>();
+        SqlPlaceHolderLexer.scan(new ChunkedReader(sql, maxChunk, random),
+                (text, start, end) -> placeHolders.add(text.subSequence(start, end).toString()));
+        return placeHolders;
+    }
+
+    private static String randomSql(Random random, int minLength) {
+        final StringBuilder sql = new StringBuilder();
+        while (sql.length() < minLength) {
+            sql.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return sql.toString();
+    }
+
+    private static String repeat(char c, int count) {
+        return String.valueOf(c).repeat(Math.max(0, count));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= 200 ? sql : sql.substring(0, 100) + "..." + sql.substring(sql.length() - 100);
+    }
+
+    /**
+     * Returns at most the given number of characters per read, a random number of them when above 1.
+     */
+    private static final class ChunkedReader extends Reader {
+        private final Reader delegate;
+        private final int maxChunk;
+        private final Random random;
+
+        private ChunkedReader(String text, int maxChunk, Random random) {
+            this.delegate = new StringReader(text);
+            this.maxChunk = maxChunk;
+            this.random = random;
+        }
+
+        @Override
+        public int read(@NotNull char[] buffer, int offset, int length) throws IOException {
+            final int chunk = maxChunk == 1 ? 1 : 1 + random.nextInt(maxChunk);
+            return delegate.read(buffer, offset, Math.min(length, chunk));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
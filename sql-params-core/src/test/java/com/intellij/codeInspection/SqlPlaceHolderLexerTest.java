@@ -0,0 +1,161 @@
+package com.intellij.codeInspection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * One case per sql construct the lexer has to skip or recognize.
+ */
+public class SqlPlaceHolderLexerTest {
+
+    @Test
+    public void reportsPlaceHoldersInTextOrderWithDuplicates() {
+        assertPlaceHolders("select * from t where a = :a and b = :b or a = :a", "a", "b", "a");
+    }
+
+    @Test
+    public void reportsOffsetsOfTheNameAfterTheColon() {
+        final List<int[]> ranges = new ArrayList<>();
+        SqlPlaceHolderLexer.scan("a = :userId", (sql, start, end) -> ranges.add(new int[]{start, end}));
+        assertEquals(1, ranges.size());
+        assertEquals(5, ranges.get(0)[0]);
+        assertEquals(11, ranges.get(0)[1]);
+    }
+
+    @Test
+    public void acceptsUnderscoresAndDigitsInNames() {
+        assertPlaceHolders("where a = :_from and b = :to_2 and c = :x1y", "_from", "to_2", "x1y");
+    }
+
+    @Test
+    public void ignoresColonsNotStartingAName() {
+        assertPlaceHolders("select '12:30', a : b, :1, :");
+        assertPlaceHolders("select 1 :");
+    }
+
+    @Test
+    public void ignoresColonsRightAfterAnIdentifier() {
+        assertPlaceHolders("select a:b, arr[1:2], :c", "c");
+    }
+
+    @Test
+    public void skipsLineComments() {
+        assertPlaceHolders("-- :commented\nwhere a = :a -- and b = :b\n and c = :c", "a", "c");
+    }
+
+    @Test
+    public void skipsUnterminatedLineComment() {
+        assertPlaceHolders(":a -- :b", "a");
+    }
+
+    @Test
+    public void treatsSingleDashAsOperator() {
+        assertPlaceHolders("where a = 1 - :a", "a");
+    }
+
+    @Test
+    public void skipsBlockComments() {
+        assertPlaceHolders("/* :commented */ where a = :a /* and\n b = :b */", "a");
+    }
+
+    @Test
+    public void skipsNestedBlockComments() {
+        assertPlaceHolders("/* outer /* inner :x */ still outer :y */ where a = :a", "a");
+    }
+
+    @Test
+    public void skipsUnterminatedBlockComment() {
+        assertPlaceHolders("where a = :a /* /* :b */ :c", "a");
+    }
+
+    @Test
+    public void treatsSingleSlashAsOperator() {
+        assertPlaceHolders("select a / :divisor", "divisor");
+    }
+
+    @Test
+    public void skipsQuotedLiterals() {
+        assertPlaceHolders("where a = ':x' and b = :b", "b");
+    }
+
+    @Test
+    public void skipsDoubledQuotesInLiterals() {
+        assertPlaceHolders("where a = 'it''s :x' and b = :b", "b");
+    }
+
+    @Test
+    public void skipsQuotedIdentifiers() {
+        assertPlaceHolders("select \"col :x\", \"a\"\":y\" from t where b = :b", "b");
+    }
+
+    @Test
+    public void skipsUnterminatedLiteral() {
+        assertPlaceHolders("where a = :a and b = 'unterminated :b", "a");
+    }
+
+    @Test
+    public void skipsBackslashEscapesInEscapeStrings() {
+        // The escaped quote doesn't end the literal, so :x is still quoted
+        assertPlaceHolders("where a = E'it\\'s :x' and b = :b", "b");
+        assertPlaceHolders("where a = e'\\\\' and b = :b", "b");
+    }
+
+    @Test
+    public void keepsBackslashesLiteralInStandardStrings() {
+        // Without the E prefix the backslash is an ordinary character and the quote ends the literal
+        assertPlaceHolders("where a = '\\' and b = :b", "b");
+        assertPlaceHolders("where a = '\\' :x '", "x");
+    }
+
+    @Test
+    public void requiresEscapeStringPrefixToStandAlone() {
+        // "some'..." is not an escape string, the E ends an identifier
+        assertPlaceHolders("where a = some'\\' :x '", "x");
+    }
+
+    @Test
+    public void skipsDollarQuotedBodies() {
+        assertPlaceHolders("do $$ begin :x; end $$; select :a", "a");
+    }
+
+    @Test
+    public void skipsTaggedDollarQuotedBodies() {
+        assertPlaceHolders("create function f() as $body$ select :x $$ :y $body$; select :a", "a");
+    }
+
+    @Test
+    public void skipsUnterminatedDollarQuotedBody() {
+        assertPlaceHolders("select :a, $tag$ :b $other$", "a");
+    }
+
+    @Test
+    public void treatsPositionalParamsAsPlainText() {
+        assertPlaceHolders("where a = $1 and b = :b and c = $2", "b");
+    }
+
+    @Test
+    public void treatsDollarInIdentifiersAsPlainText() {
+        assertPlaceHolders("select a$b$ from t where c = :c", "c");
+    }
+
+    @Test
+    public void skipsCasts() {
+        assertPlaceHolders("select a::int, :b::jsonb, c::text[] where d = :d", "b", "d");
+    }
+
+    @Test
+    public void reportsNothingOnEmptyText() {
+        assertPlaceHolders("");
+    }
+
+    private static void assertPlaceHolders(String sql, String... expected) {
+        final List<String> placeHolders = new ArrayList<>();
+        SqlPlaceHolderLexer.scan(sql, (text, start, end) -> placeHolders.add(text.subSequence(start, end).toString()));
+        assertEquals(sql, Arrays.asList(expected), placeHolders);
+    }
+}
@@ -0,0 +1,77 @@
+package com.intellij.codeInspection;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Distinct placeholders and the open addressing table of {@link SqlPlaceHolderSet.Collector}.
+ */
+public class SqlPlaceHolderSetTest {
+
+    @Test
+    public void keepsDistinctPlaceHoldersInDeclarationOrder() {
+        final SqlPlaceHolderSet placeHolders = SqlPlaceHolderSet.parse(":b :a :b :c :a");
+        assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<>(placeHolders));
+        assertEquals(0, placeHolders.indexOf("b"));
+        assertEquals(1, placeHolders.indexOf("a"));
+        assertEquals(2, placeHolders.indexOf("c"));
+        assertEquals(-1, placeHolders.indexOf("d"));
+        assertEquals("c", placeHolders.get(2));
+        assertTrue(placeHolders.contains("a"));
+        assertFalse(placeHolders.contains("d"));
+    }
+
+    @Test
+    public void returnsEmptySetWithoutPlaceHolders() {
+        assertSame(SqlPlaceHolderSet.EMPTY, SqlPlaceHolderSet.parse("select 1 -- :a"));
+        assertEquals(-1, SqlPlaceHolderSet.EMPTY.indexOf("a"));
+    }
+
+    @Test
+    public void distinguishesNamesWithTheSameHash() {
+        // "Aa" and "BB" share their String hash code, so they land in the same slot of the table
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        final SqlPlaceHolderSet placeHolders = SqlPlaceHolderSet.parse(":Aa :BB :Aa :BB :AaAa :BBBB :AaBB");
+        assertEquals(Arrays.asList("Aa", "BB", "AaAa", "BBBB", "AaBB"), new ArrayList<>(placeHolders));
+    }
+
+    @Test
+    public void distinguishesPrefixes() {
+        final SqlPlaceHolderSet placeHolders = SqlPlaceHolderSet.parse(":id :idx :i :id");
+        assertEquals(Arrays.asList("id", "idx", "i"), new ArrayList<>(placeHolders));
+    }
+
+    @Test
+    public void keepsEveryPlaceHolderAcrossRehashes() {
+        final StringBuilder sql = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add("p" + i);
+        }
+        // Every name twice, so lookups of known names run on tables of every size
+        for (int round = 0; round < 2; round++) {
+            for (String name : expected) {
+                sql.append("and a = :").append(name).append('\n');
+            }
+        }
+        final SqlPlaceHolderSet placeHolders = SqlPlaceHolderSet.parse(sql);
+        assertEquals(expected, new ArrayList<>(placeHolders));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, placeHolders.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void parsesReaderLikeCharSequence() throws IOException {
+        final String sql = "select :a, ':b' /* :c */ from t where d = :d and a = :a";
+        assertEquals(new ArrayList<>(SqlPlaceHolderSet.parse(sql)),
+                new ArrayList<>(SqlPlaceHolderSet.parse(new StringReader(sql))));
+    }
+}
@@ -1,27 +1,23 @@
 package com.intellij.codeInspection;
 
-import com.google.common.collect.ImmutableSet;
+import com.intellij.codeInspection.ui.SingleIntegerFieldOptionsPanel;
+import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.editor.Document;
-import com.intellij.openapi.fileEditor.FileDocumentManager;
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.module.ModuleUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
-import com.intellij.psi.impl.java.stubs.JavaLiteralExpressionElementType;
-import com.intellij.psi.search.ProjectScope;
-import com.intellij.psi.search.searches.MethodReferencesSearch;
+import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.ui.FormBuilder;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import javax.swing.*;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * @author max
@@ -29,8 +25,31 @@ import java.util.stream.Stream;
  */
 public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspectionTool {
     private static final Logger LOG = Logger.getInstance("#com.intellij.codeInspection.NonExistingSqlParamInspection");
-    public static final String PLACE_HOLDER_SEPARATOR_REGEX = "[ ,)(\n;\r\t|=><]";
+    public static final String SHORT_NAME = "NonExistingSqlParam";
+    private static final String COMPANY_ID = "companyId";
 
+    /**
+     * Bounds of the caller walk deciding whether a statement received as a method parameter is single tenant.
+     * Once one of them is reached the companyId checks of the call site are skipped.
+     * The time bound only applies on the fly, batch runs must report the same problems whatever the machine load.
+     */
+    public int tenantSearchMaxDepth = 8;
+    public int tenantSearchMaxReferences = 300;
+    public int tenantSearchMaxMillis = 250;
+
+    @Nullable
+    @Override
+    public JComponent createOptionsPanel() {
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Single tenant search max depth:",
+                        SingleIntegerFieldOptionsPanel.createIntegerFieldTextField(this, "tenantSearchMaxDepth"))
+                .addLabeledComponent("Single tenant search max references:",
+                        SingleIntegerFieldOptionsPanel.createIntegerFieldTextField(this, "tenantSearchMaxReferences"))
+                .addLabeledComponent("Single tenant search max time (ms):",
+                        SingleIntegerFieldOptionsPanel.createIntegerFieldTextField(this, "tenantSearchMaxMillis"))
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
 
     /**
      * This method is overridden to provide a custom visitor
@@ -45,6 +64,16 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
     @NotNull
     @Override
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+        final SingleTenantResolver.Budget tenantSearchBudget = isOnTheFly
+                ? new SingleTenantResolver.Budget(tenantSearchMaxDepth, tenantSearchMaxReferences, tenantSearchMaxMillis)
+                : SingleTenantResolver.Budget.withoutTimeLimit(tenantSearchMaxDepth, tenantSearchMaxReferences);
+        final SqlParamMetrics metrics = SqlParamMetrics.getInstance(holder.getProject());
+        final long gateStart = System.nanoTime();
+        final boolean mayContainSqlCallSites = SqlCallSites.mayContainSqlCallSites(holder.getFile());
+        metrics.record(SqlParamMetrics.Phase.CALL_SITE_FILTERING, gateStart);
+        if (!mayContainSqlCallSites) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
         return new JavaElementVisitor() {
 
             /**
@@ -60,291 +89,196 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
             @Override
             public void visitCallExpression(PsiCallExpression callExpression) {
                 super.visitCallExpression(callExpression);
-                if (!parsableSql(callExpression)) {
+                if (!SqlCallSites.isSqlCallSite(callExpression)) {
                     return;
                 }
-                PsiElement firstChild = callExpression.getFirstChild();
-                loadSql((PsiMethodCallExpression) firstChild.getParent())
-                        .map(sql -> Arrays.asList(sql.split(PLACE_HOLDER_SEPARATOR_REGEX)))
-                        .map(this::toPlaceHolders)
+                final long start = System.nanoTime();
+                metrics.increment(SqlParamMetrics.Counter.CALL_SITES_VISITED);
+                final SqlStatementChain chain = SqlStatementChain.of((PsiMethodCallExpression) callExpression);
+                loadSql(chain)
                         .ifPresent(placeHolders -> {
-                            final boolean singleTenantDbAccess = isSingleTenantDbAccess(callExpression);
-                            if (singleTenantDbAccess) {
-                                placeHolders.remove("companyId");
+                            final long tenantAnalysisStart = System.nanoTime();
+                            final SingleTenantResolver.Verdict tenantVerdict = SingleTenantResolver
+                                    .getInstance(callExpression.getProject())
+                                    .resolve(chain, tenantSearchBudget);
+                            final long problemMarkingStart = metrics.record(SqlParamMetrics.Phase.TENANT_ANALYSIS, tenantAnalysisStart);
+                            final SqlParamMatcher matcher = new SqlParamMatcher(placeHolders);
+                            // An unknown verdict skips the companyId checks altogether
+                            if (tenantVerdict != SingleTenantResolver.Verdict.MULTI_TENANT) {
+                                matcher.ignore(COMPANY_ID);
                             }
-                            markProblems(firstChild, placeHolders, singleTenantDbAccess);
+                            markProblems(chain, matcher, tenantVerdict);
+                            metrics.record(SqlParamMetrics.Phase.PROBLEM_MARKING, problemMarkingStart);
                         });
+                metrics.recordFile(holder.getFile(), start);
             }
 
-            @NotNull
-            private List<String> toPlaceHolders(List<String> sqlParts) {
-                return sqlParts.stream()
-                        .filter(part -> part.startsWith(":") && !part.startsWith("::"))
-                        .map(this::toPlaceHolder)
-                        .distinct()
-                        .collect(Collectors.toList());
-            }
-
-            private boolean isSingleTenantDbAccess(PsiCallExpression callExpression) {
-                final PsiElement statementElement = callExpression.findElementAt(0);
-                if (statementElement != null && statementElement.getContext() instanceof PsiReferenceExpression) {
-                    final PsiElement resolveStatementElement = ((PsiReferenceExpression) statementElement.getContext()).resolve();
-                    if (resolveStatementElement instanceof PsiParameter) {
-                        return lookupSingleTenantOnCallReferences(callExpression);
-                    }
-                }
-                return lookupSingleTenantOnParent(callExpression) || lookupSingleTenantOnChild(callExpression);
-            }
-
-            private boolean lookupSingleTenantOnCallReferences(PsiCallExpression callExpression) {
-                // First see the statement element comes from a method parameter...
-
-                PsiMethod method = PsiTreeUtil.getParentOfType(callExpression, PsiMethod.class);
-                if (method == null) {
-                    return false;
-                }
-
-                final Collection<PsiReference> all = MethodReferencesSearch.search(
-                        method, ProjectScope.getAllScope(callExpression.getProject()), true)
-                        .findAll();
-                return all.stream().allMatch(this::callerIsSingleTenant);
-            }
-
-            private boolean callerIsSingleTenant(PsiReference psiReference) {
-                final PsiCallExpression psiCallExpression = PsiTreeUtil.getParentOfType(psiReference.getElement(), PsiCallExpression.class);
-                if (psiCallExpression != null && psiCallExpression.getArgumentList() != null
-                        && !psiCallExpression.getArgumentList().isEmpty()) {
-                    final PsiElement[] children = psiCallExpression.getArgumentList().getChildren();
-                    final boolean hasCompany = Stream.of(children)
-                            .filter(psiElement -> psiElement instanceof PsiMethodCallExpression)
-                            .anyMatch(psiElement -> lookupSingleTenantOnParent((PsiCallExpression) psiElement));
-                    return hasCompany || lookupSingleTenantOnCallReferences(psiCallExpression);
-
-                }
-                return false;
-            }
-
-            private boolean lookupSingleTenantOnParent(PsiCallExpression callExpression) {
-                // Lookup on expression parents
-                PsiElement parent = callExpression;
-                while (!(parent instanceof PsiClass)) {
-                    if (parent instanceof PsiMethodCallExpression) {
-                        if (parent.getFirstChild() != null && parent.getFirstChild().getLastChild() != null) {
-                            final PsiElement potentialCompanyChild = parent.getFirstChild().getLastChild();
-                            if (potentialCompanyChild.getText().equals("company")) {
-                                return true;
-                            }
+            private void markProblems(SqlStatementChain chain, SqlParamMatcher matcher, SingleTenantResolver.Verdict tenantVerdict) {
+                // Created on the first unknown param only, most call sites have none
+                LocalQuickFix[] placeHolderQuickFixes = null;
+                final List<String> params = chain.getParamNames();
+                for (int i = 0; i < params.size(); i++) {
+                    final String param = params.get(i);
+                    final PsiLiteralExpression child = chain.getParamAnchor(i);
+                    if (param.equals(COMPANY_ID) && tenantVerdict != SingleTenantResolver.Verdict.MULTI_TENANT) {
+                        if (tenantVerdict == SingleTenantResolver.Verdict.SINGLE_TENANT) {
+                            holder.registerProblem(child,
+                                    String.format("Remove redundant %s", param),
+                                    ProblemHighlightType.WARNING,
+                                    new RemoveParamQuickFix(param));
                         }
+                        continue;
                     }
-                    parent = parent.getParent();
-                }
-                return false;
-            }
-
-            private boolean lookupSingleTenantOnChild(PsiCallExpression callExpression) {
-                PsiElement firstChild = callExpression.getFirstChild();
-                while (firstChild != null) {
-                    final PsiElement lastChild = firstChild.getLastChild();
-                    if (lastChild instanceof PsiIdentifier && lastChild.getText().equals("company")) {
-                        return true;
-                    }
-                    firstChild = firstChild.getFirstChild();
-                }
-                return false;
-            }
-
-            private void markProblems(PsiElement firstChild, List<String> placeHolders, boolean singleTenantDbAccess) {
-                Set<String> matchedParams = new HashSet<>();
-                PlaceHolderQuickFix[] placeHolderQuickFixes = placeHolders.stream()
-                        .map(PlaceHolderQuickFix::new)
-                        .toArray(PlaceHolderQuickFix[]::new);
-                PsiElement parent = firstChild.getParent().getParent();
-                boolean checkMissingInParams = false;
-                while (!(parent instanceof PsiClass)) {
-                    if (parent instanceof PsiMethodCallExpression) {
-                        PsiElement lastChild = ((PsiMethodCallExpression) parent).getMethodExpression()
-                                .getLastChild();
-                        if (isParam(lastChild)) {
-                            PsiElement child = ((PsiMethodCallExpression) parent)
-                                    .getArgumentList()
-                                    .getChildren()[1];
-                            if (child instanceof PsiLiteralExpression &&
-                                    child.getNode().getElementType() instanceof JavaLiteralExpressionElementType
-                                    && child.getText().startsWith("\"")) {
-                                checkMissingInParams = true;
-                                String param = child.getText().replace("\"", "");
-                                if (param.equals("companyId") && singleTenantDbAccess) {
-                                    holder.registerProblem(child,
-                                            String.format("Remove redundant %s", param),
-                                            ProblemHighlightType.WARNING,
-                                            new RemoveParamQuickFix(param));
-                                    parent = parent.getParent();
-                                    continue;
-                                }
-                                System.out.print(String.format("Looking if :%s exists... ", param));
-                                boolean matches = placeHolders.contains(param);
-                                if (!matches) {
-                                    holder.registerProblem(child,
-                                            String.format(NO_PLACE_HOLDER_IN_FILE, param),
-                                            placeHolderQuickFixes);
-                                } else {
-                                    matchedParams.add(param);
-                                }
-                                System.out.print(matches);
-                                System.out.println();
-                            }
+                    if (!matcher.match(param)) {
+                        if (placeHolderQuickFixes == null) {
+                            placeHolderQuickFixes = matcher.getCandidatePlaceHolders().stream()
+                                    .map(PlaceHolderQuickFix::new)
+                                    .toArray(LocalQuickFix[]::new);
                         }
+                        holder.registerProblem(child,
+                                String.format(NO_PLACE_HOLDER_IN_FILE, param),
+                                placeHolderQuickFixes);
                     }
-                    parent = parent.getParent();
                 }
 
-                if (checkMissingInParams) {
-                    markMissingPlaceHoldersInParams(firstChild, placeHolders, matchedParams);
+                if (!params.isEmpty()) {
+                    markMissingPlaceHoldersInParams(chain, matcher);
                 }
             }
 
-            private final Set<String> PARAM_METHOD_NAMES = ImmutableSet.of(
-                    "param",
-                    "paramNull",
-                    "paramArray",
-                    "paramLongsArray",
-                    "paramStringsArray",
-                    "paramEnumNamesArray"
-            );
-
-            private boolean isParam(PsiElement lastChild) {
-                return lastChild != null && PARAM_METHOD_NAMES.contains(lastChild.getText());
-            }
-
-            private void markMissingPlaceHoldersInParams(PsiElement firstChild, List<String> placeHolders, Set<String> matchedParams) {
-                List<String> noneExistingParams = placeHolders.stream()
-                        .filter(ph -> !matchedParams.contains(ph))
-                        .distinct()
-                        .collect(Collectors.toList());
+            private void markMissingPlaceHoldersInParams(SqlStatementChain chain, SqlParamMatcher matcher) {
+                List<String> noneExistingParams = matcher.getUnmatchedPlaceHolders();
                 if (!noneExistingParams.isEmpty()) {
-                    PsiElement parent = firstChild.getParent();
-                    Set<String> lastChildTexts = new HashSet<>();
-                    while (parent != null && !(parent instanceof PsiFile)) {
-                        final PsiElement lastChild = parent.getLastChild();
-                        if ((lastChild instanceof PsiIdentifier) && (
-                                lastChild.getText().startsWith("batchUpdate") ||
-                                        lastChild.getText().startsWith("params"))) {
-                            System.out.println("Has dynamic params, skipping missed check on " + firstChild);
-                            return;
-                        }
-                        if ((lastChild instanceof PsiIdentifier)) {
-                            lastChildTexts.add(lastChild.getText());
-                        }
-                        parent = parent.getParent();
-                    }
-
-                    boolean registerProblem = lastChildTexts.stream()
-                            .anyMatch(childText -> childText.startsWith("query") || childText.equals("update"));
-                    if (registerProblem) {
+                    final PsiElement firstChild = chain.getCall().getFirstChild();
+                    if (chain.hasDynamicParams()) {
+                        LOG.debug("Has dynamic params, skipping missed check on ", firstChild);
+                    } else if (chain.hasQueryOrUpdateTerminal()) {
                         holder.registerProblem(firstChild,
                                 String.format(MISSING_PLACE_HOLDERS_IN_PARAMS,
-                                        String.join("\n", noneExistingParams)));
+                                        String.join("\n", noneExistingParams)),
+                                new AddMissingParamsQuickFix(noneExistingParams));
                     } else {
-                        System.out.println("Has dynamic params, skipping missed check on " + firstChild);
+                        LOG.debug("No query or update terminal, skipping missed check on ", firstChild);
                     }
                 }
             }
 
-            private boolean parsableSql(PsiCallExpression callExpression) {
-                if (callExpression.getParent() != null) {
-                    PsiElement lastChild = callExpression.getParent().getLastChild();
-                    if (lastChild != null && lastChild.getText().startsWith("batchUpdate")) {
-                        return false;
-                    }
-                }
-                PsiElement firstChild = callExpression.getFirstChild();
-                return firstChild != null &&
-                        (firstChild.getText().endsWith("statement") ||
-                                firstChild.getText().endsWith("statements") ||
-                                firstChild.getText().endsWith("sql") ||
-                                firstChild.getText().endsWith("sqls") ||
-                                firstChild.getText().endsWith("sqlNoLogging")) &&
-                        callExpression instanceof PsiMethodCallExpression &&
-                        isValidFilePath((PsiMethodCallExpression) callExpression);
-            }
-
-            private String toPlaceHolder(String part) {
-                String actualPart = part.substring(1);
-                int indexOfJsonIdentifier = actualPart.toLowerCase().indexOf("::");
-                return indexOfJsonIdentifier > -1 ? actualPart.substring(0, indexOfJsonIdentifier) : actualPart;
-            }
-
-            private Optional<String> loadSql(PsiMethodCallExpression psiMethodCallExpression) {
-                PsiElement child = psiMethodCallExpression.getArgumentList().getChildren()[1];
-                String path = child.getText().replace("\"", "");
-                final PsiFile containingFile = child.getContainingFile();
-                final Module module = ModuleUtil.findModuleForFile(containingFile);
-                // First check in main
-                VirtualFile sqlFile = resolveSqlFile(module, containingFile, path, "main");
-
-                // If not found and file belongs to test then check in test folder
-                if (sqlFile == null && containingFile.getVirtualFile().getCanonicalPath().contains("test")) {
-                    sqlFile = resolveSqlFile(module, containingFile, path, "test");
+            private Optional<SqlPlaceHolderSet> loadSql(SqlStatementChain chain) {
+                PsiElement child = chain.getPathLiteral();
+                if (!SqlCallSites.hasResourceRoots(child)) {
+                    LOG.debug("Not in a module, skipping sql resolution of ", child);
+                    return Optional.empty();
                 }
+                final long resolutionStart = System.nanoTime();
+                final VirtualFile sqlFile = SqlCallSites.resolveSqlFile(child, chain.getPath());
+                final long loadingStart = metrics.record(SqlParamMetrics.Phase.SQL_RESOLUTION, resolutionStart);
 
                 // Case both paths not resolved register file does not exists problem
-                if (sqlFile == null || !sqlFile.exists()) {
+                if (sqlFile == null) {
+                    metrics.increment(SqlParamMetrics.Counter.SQL_FILES_MISSING);
                     holder.registerProblem(child,
                             "Sql file does not exists");
                     return Optional.empty();
                 }
+                metrics.increment(SqlParamMetrics.Counter.SQL_FILES_RESOLVED);
 
-                FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
-                return Optional.ofNullable(fileDocumentManager.getDocument(sqlFile))
-                        .map(Document::getText)
-                        .map(this::filterOutComments);
-            }
-
-            private String filterOutComments(String sql) {
-                final String[] lines = sql.split("\n");
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < lines.length; i++) {
-                    int indexOfComment = lines[i].indexOf("--");
-                    if (indexOfComment > -1) {
-                        sb.append(lines[i], 0, indexOfComment).append('\n');
-                    } else {
-                        sb.append(lines[i]).append('\n');
-                    }
-                }
-                return sb.toString();
+                final SqlPlaceHolderSet placeHolders = SqlPlaceHolderCache.getInstance(child.getProject()).getPlaceHolders(sqlFile);
+                metrics.record(SqlParamMetrics.Phase.SQL_LOADING, loadingStart);
+                return Optional.ofNullable(placeHolders);
             }
         };
     }
 
-    @Nullable
-    private VirtualFile resolveSqlFile(Module module, PsiFile containingFile, String path, String resourceContainer) {
-        VirtualFile sqlFile = module.getModuleFile().getParent().findFileByRelativePath("src/" + resourceContainer
-                + "/resources/" + path);
-        if (sqlFile == null) {
-            final HashSet<Module> modules = new HashSet<>();
-            ModuleUtil.getDependencies(Objects.requireNonNull(ModuleUtil.findModuleForFile(containingFile)), modules);
-            sqlFile = modules.stream()
-                    .map(currentModule -> currentModule.getModuleFile().getParent())
-                    .map(directory -> directory.findFileByRelativePath("src/" + resourceContainer + "/resources/" + path))
-                    .filter(Objects::nonNull)
-                    .findFirst()
-                    .orElse(null);
+    /**
+     * Base of the quick fixes of this inspection. Applied to many problems at once, e.g. from the inspection results,
+     * every problem is fixed by its own fix of the same family within a single write command, so there is one undo
+     * step and the documents are committed once. The code the fixes generate is reformatted after all of them ran,
+     * in one formatter pass per file.
+     */
+    private abstract static class SqlParamQuickFix implements LocalQuickFix, BatchQuickFix<CommonProblemDescriptor> {
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            final PsiElement generated = fix(project, descriptor);
+            if (generated != null) {
+                CodeStyleManager.getInstance(project).reformat(generated);
+            }
         }
 
-        return sqlFile;
-    }
+        /**
+         * Fixes a single problem, without reformatting.
+         *
+         * @return the generated code to reformat, or null if there is none
+         */
+        @Nullable
+        protected abstract PsiElement fix(@NotNull Project project, @NotNull ProblemDescriptor descriptor);
 
-    private boolean isValidFilePath(PsiMethodCallExpression psiMethodCallExpression) {
-        PsiElement child = psiMethodCallExpression.getArgumentList().getChildren()[1];
-        final String text = child.getText();
-        if (!(text.startsWith("\"") || text.endsWith("\""))) {
-            return false;
+        @Override
+        public void applyFix(@NotNull Project project,
+                             @NotNull CommonProblemDescriptor[] descriptors,
+                             @NotNull List<PsiElement> psiElementsToIgnore,
+                             @Nullable Runnable refreshViews) {
+            final Map<ProblemDescriptor, SqlParamQuickFix> fixes = new LinkedHashMap<>();
+            final Set<PsiFile> files = new LinkedHashSet<>();
+            for (CommonProblemDescriptor descriptor : descriptors) {
+                final SqlParamQuickFix fix = findFix(descriptor);
+                final PsiElement element = descriptor instanceof ProblemDescriptor
+                        ? ((ProblemDescriptor) descriptor).getPsiElement()
+                        : null;
+                if (fix != null && element != null && element.isValid()) {
+                    fixes.put((ProblemDescriptor) descriptor, fix);
+                    files.add(element.getContainingFile());
+                }
+            }
+            WriteCommandAction.writeCommandAction(project, files.toArray(PsiFile.EMPTY_ARRAY))
+                    .withName(getFamilyName())
+                    .run(() -> {
+                        final List<SmartPsiElementPointer<PsiElement>> generated = new ArrayList<>();
+                        fixes.forEach((descriptor, fix) -> {
+                            if (descriptor.getPsiElement() != null && descriptor.getPsiElement().isValid()) {
+                                final PsiElement element = fix.fix(project, descriptor);
+                                if (element != null) {
+                                    generated.add(SmartPointerManager.createPointer(element));
+                                }
+                            }
+                        });
+                        reformat(project, generated);
+                    });
+            if (refreshViews != null) {
+                refreshViews.run();
+            }
+        }
+
+        private static void reformat(Project project, List<SmartPsiElementPointer<PsiElement>> generated) {
+            final Map<PsiFile, List<TextRange>> ranges = new LinkedHashMap<>();
+            for (SmartPsiElementPointer<PsiElement> pointer : generated) {
+                final PsiElement element = pointer.getElement();
+                if (element != null) {
+                    ranges.computeIfAbsent(element.getContainingFile(), file -> new ArrayList<>()).add(element.getTextRange());
+                }
+            }
+            final CodeStyleManager codeStyleManager = CodeStyleManager.getInstance(project);
+            ranges.forEach(codeStyleManager::reformatText);
+        }
+
+        @Nullable
+        private SqlParamQuickFix findFix(CommonProblemDescriptor descriptor) {
+            final QuickFix<?>[] fixes = descriptor.getFixes();
+            if (fixes != null) {
+                for (QuickFix<?> fix : fixes) {
+                    if (fix.getClass() == getClass() && fix.getFamilyName().equals(getFamilyName())) {
+                        return (SqlParamQuickFix) fix;
+                    }
+                }
+            }
+            return null;
         }
-        String path = text.substring(1, text.length() - 1);
-        return path.matches("[^\\\"]+/[^\\/]+$");
     }
 
-    private static class RemoveParamQuickFix implements LocalQuickFix {
+    /**
+     * Removes a param call from its chain, e.g. {@code .param("companyId", companyId)}.
+     */
+    private static class RemoveParamQuickFix extends SqlParamQuickFix {
 
         private final String param;
 
@@ -359,12 +293,18 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
             return "Remove redundant " + param;
         }
 
+        @Nullable
         @Override
-        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor problemDescriptor) {
-            PsiLiteralExpression psiLiteralExpression = (PsiLiteralExpression) problemDescriptor.getPsiElement();
-            psiLiteralExpression.getParent().getPrevSibling().getLastChild().getPrevSibling().getPrevSibling().delete();
-            psiLiteralExpression.getParent().getPrevSibling().getLastChild().delete();
-            psiLiteralExpression.getParent().delete();
+        protected PsiElement fix(@NotNull Project project, @NotNull ProblemDescriptor problemDescriptor) {
+            final PsiMethodCallExpression paramCall =
+                    PsiTreeUtil.getParentOfType(problemDescriptor.getPsiElement(), PsiMethodCallExpression.class);
+            final PsiExpression qualifier = paramCall != null
+                    ? paramCall.getMethodExpression().getQualifierExpression()
+                    : null;
+            if (qualifier != null) {
+                paramCall.replace(qualifier);
+            }
+            return null;
         }
     }
 
@@ -372,7 +312,7 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
      * This class provides a solution to inspection problem expressions by
      * replacing the non existing place holder with an existing one specified in the constructor
      */
-    private static class PlaceHolderQuickFix implements LocalQuickFix {
+    private static class PlaceHolderQuickFix extends SqlParamQuickFix {
 
         private final String placeHolder;
 
@@ -393,13 +333,15 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
         }
 
         /**
-         * This method manipulates the PSI tree to replace 'a==b' with 'a.equals(b)
-         * or 'a!=b' with '!a.equals(b)'
+         * Replaces the param name literal with the placeholder.
          *
          * @param project    The project that contains the file being edited.
          * @param descriptor A problem found by this inspection.
+         * @return null, the literal needs no reformatting
          */
-        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        @Nullable
+        @Override
+        protected PsiElement fix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
             try {
                 PsiLiteralExpression psiLiteralExpression = (PsiLiteralExpression) descriptor.getPsiElement();
                 PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
@@ -408,6 +350,7 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
             } catch (IncorrectOperationException e) {
                 LOG.error(e);
             }
+            return null;
         }
 
         @NotNull
@@ -416,4 +359,69 @@ public class NonExistingSqlParamInspection extends AbstractBaseJavaLocalInspecti
         }
     }
 
+    /**
+     * Appends a {@code .param("name", name)} call for every placeholder no param binds, after the last param
+     * of the chain, one per line. Values are the variables of the placeholder name in scope, or null when there is
+     * no such variable. The extended chain is reformatted by {@link SqlParamQuickFix}.
+     */
+    private static class AddMissingParamsQuickFix extends SqlParamQuickFix {
+
+        private final List<String> placeHolders;
+
+        public AddMissingParamsQuickFix(List<String> placeHolders) {
+            this.placeHolders = placeHolders;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return placeHolders.size() == 1
+                    ? "Add param " + placeHolders.get(0)
+                    : "Add params " + String.join(", ", placeHolders);
+        }
+
+        @Nls(capitalization = Nls.Capitalization.Sentence)
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Add missing params";
+        }
+
+        @Nullable
+        @Override
+        protected PsiElement fix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            final PsiElement element = descriptor.getPsiElement();
+            if (element == null || !(element.getParent() instanceof PsiMethodCallExpression)) {
+                return null;
+            }
+            final SqlStatementChain chain = SqlStatementChain.build((PsiMethodCallExpression) element.getParent());
+            final int lastParam = chain.getParamNames().size() - 1;
+            final PsiMethodCallExpression lastParamCall = lastParam >= 0
+                    ? PsiTreeUtil.getParentOfType(chain.getParamAnchor(lastParam), PsiMethodCallExpression.class)
+                    : chain.getCall();
+            if (lastParamCall == null) {
+                return null;
+            }
+
+            final JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+            final PsiResolveHelper resolveHelper = facade.getResolveHelper();
+            final StringBuilder text = new StringBuilder("q");
+            for (String placeHolder : placeHolders) {
+                text.append("\n.param(\"").append(placeHolder).append("\", ")
+                        .append(resolveHelper.resolveReferencedVariable(placeHolder, lastParamCall) != null ? placeHolder : "null")
+                        .append(')');
+            }
+            final PsiExpression generated = facade.getElementFactory().createExpressionFromText(text.toString(), lastParamCall);
+            // Hook the generated calls onto the chain in place of the "q" placeholder qualifier
+            PsiExpression innermost = generated;
+            while (innermost instanceof PsiMethodCallExpression) {
+                innermost = ((PsiMethodCallExpression) innermost).getMethodExpression().getQualifierExpression();
+            }
+            if (innermost == null) {
+                return null;
+            }
+            innermost.replace(lastParamCall);
+            return lastParamCall.replace(generated);
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.datatransfer.StringSelection;
+
+/**
+ * Shows the {@link SqlParamMetrics} of the current project, and lets the user copy them as JSON or reset them.
+ */
+public class ShowSqlParamMetricsAction extends AnAction implements DumbAware {
+
+    private static final int COPY_AS_JSON = 0;
+    private static final int RESET = 1;
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        SqlParamMetrics metrics = SqlParamMetrics.getInstance(project);
+        int choice = Messages.showDialog(project, metrics.toText(), "SQL Params Inspection Metrics",
+                new String[]{"Copy as JSON", "Reset", "Close"}, 2, Messages.getInformationIcon());
+        if (choice == COPY_AS_JSON) {
+            CopyPasteManager.getInstance().setContents(new StringSelection(metrics.toJson()));
+        } else if (choice == RESET) {
+            metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.search.ProjectScope;
+import com.intellij.psi.search.searches.MethodReferencesSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides whether a sql statement is executed on a single tenant (company) db access.
+ * <p>
+ * When the statement is received as a method parameter every caller of that method has to be single tenant,
+ * which means a project wide reference search per helper method. Verdicts of helper methods are therefore
+ * kept until the next PSI modification and shared by all call sites and files. The caller walk of a single
+ * call site is bounded by a {@link Budget}, once spent the verdict is {@link Verdict#UNKNOWN}.
+ */
+public class SingleTenantResolver {
+
+    public enum Verdict {
+        SINGLE_TENANT,
+        MULTI_TENANT,
+        /**
+         * The search budget was spent before the callers could be decided.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * Bounds of the caller walk done for a single call site.
+     */
+    public static class Budget {
+        private static final long NO_TIME_LIMIT = -1;
+
+        private final int maxDepth;
+        private final int maxReferences;
+        private final long maxMillis;
+
+        public Budget(int maxDepth, int maxReferences, int maxMillis) {
+            this(maxDepth, maxReferences, (long) maxMillis);
+        }
+
+        private Budget(int maxDepth, int maxReferences, long maxMillis) {
+            this.maxDepth = maxDepth;
+            this.maxReferences = maxReferences;
+            this.maxMillis = maxMillis;
+        }
+
+        /**
+         * A budget bounded by the size of the caller graph only, so verdicts don't depend on the machine load,
+         * e.g. for batch runs on CI.
+         */
+        public static Budget withoutTimeLimit(int maxDepth, int maxReferences) {
+            return new Budget(maxDepth, maxReferences, NO_TIME_LIMIT);
+        }
+
+        private boolean isTimeLimited() {
+            return maxMillis != NO_TIME_LIMIT;
+        }
+    }
+
+    private static final Key<CachedValue<ConcurrentMap<PsiMethod, Verdict>>> METHOD_VERDICTS =
+            Key.create("sql.params.single.tenant.verdicts");
+
+    private final Project project;
+    private final SqlParamMetrics metrics;
+
+    public SingleTenantResolver(Project project) {
+        this.project = project;
+        this.metrics = SqlParamMetrics.getInstance(project);
+    }
+
+    public static SingleTenantResolver getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SingleTenantResolver.class);
+    }
+
+    @NotNull
+    public Verdict resolve(@NotNull SqlStatementChain chain, @NotNull Budget budget) {
+        final PsiMethodCallExpression callExpression = chain.getCall();
+        final PsiElement statementElement = callExpression.findElementAt(0);
+        if (statementElement != null && statementElement.getContext() instanceof PsiReferenceExpression) {
+            final PsiElement resolveStatementElement = ((PsiReferenceExpression) statementElement.getContext()).resolve();
+            if (resolveStatementElement instanceof PsiParameter) {
+                final Resolution resolution = new Resolution(budget);
+                final Verdict verdict = budget.isTimeLimited()
+                        ? resolveWithinTime(callExpression, resolution)
+                        : lookupSingleTenantOnCallReferences(callExpression, resolution);
+                if (resolution.exhausted) {
+                    metrics.increment(SqlParamMetrics.Counter.TENANT_BUDGET_EXCEEDED);
+                }
+                return verdict;
+            }
+        }
+        return chain.isCompanyScoped() ? Verdict.SINGLE_TENANT : Verdict.MULTI_TENANT;
+    }
+
+    /**
+     * Runs the caller walk under a progress indicator cancelled at the deadline, so that a reference search scanning
+     * many candidate files stops there too, rather than once it delivers its next reference.
+     */
+    private Verdict resolveWithinTime(PsiCallExpression callExpression, Resolution resolution) {
+        final Verdict verdict = ProgressIndicatorUtils.withTimeout(resolution.budget.maxMillis,
+                () -> lookupSingleTenantOnCallReferences(callExpression, resolution));
+        if (verdict == null) {
+            resolution.exhausted = true;
+            return Verdict.UNKNOWN;
+        }
+        return verdict;
+    }
+
+    private Verdict lookupSingleTenantOnCallReferences(PsiCallExpression callExpression, Resolution resolution) {
+        // First see the statement element comes from a method parameter...
+        PsiMethod method = PsiTreeUtil.getParentOfType(callExpression, PsiMethod.class);
+        return method != null ? resolution.resolve(method) : Verdict.MULTI_TENANT;
+    }
+
+    private ConcurrentMap<PsiMethod, Verdict> getMethodVerdicts() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, METHOD_VERDICTS,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT),
+                false);
+    }
+
+    /**
+     * State of a single verdict computation over the caller graph.
+     * <p>
+     * A caller already being resolved higher in the stack closes a cycle and is optimistically taken as
+     * single tenant, the other callers of the cycle decide. A negative verdict never depends on that
+     * assumption and is always memoized, a positive one only once no method below the cycle head is pending.
+     * Unknown verdicts are never memoized since they only reflect the budget of this computation.
+     */
+    private class Resolution {
+        private final ConcurrentMap<PsiMethod, Verdict> verdicts = getMethodVerdicts();
+        private final Map<PsiMethod, Integer> inProgress = new HashMap<>();
+        private final Budget budget;
+        private int visitedReferences;
+        private int lowestPendingDepth = Integer.MAX_VALUE;
+        private boolean exhausted;
+
+        private Resolution(Budget budget) {
+            this.budget = budget;
+        }
+
+        private Verdict resolve(PsiMethod method) {
+            ProgressManager.checkCanceled();
+            final Verdict cached = verdicts.get(method);
+            if (cached != null) {
+                metrics.increment(SqlParamMetrics.Counter.TENANT_VERDICT_CACHE_HITS);
+                return cached;
+            }
+            final Integer pendingDepth = inProgress.get(method);
+            if (pendingDepth != null) {
+                lowestPendingDepth = Math.min(lowestPendingDepth, pendingDepth);
+                return Verdict.SINGLE_TENANT;
+            }
+            final int depth = inProgress.size();
+            if (depth >= budget.maxDepth) {
+                exhausted = true;
+                return Verdict.UNKNOWN;
+            }
+
+            final int outerLowestPendingDepth = lowestPendingDepth;
+            lowestPendingDepth = Integer.MAX_VALUE;
+            inProgress.put(method, depth);
+            final Verdict[] verdict = {Verdict.SINGLE_TENANT};
+            metrics.increment(SqlParamMetrics.Counter.REFERENCE_SEARCHES);
+            try {
+                MethodReferencesSearch.search(method, ProjectScope.getAllScope(project), true)
+                        .forEach(psiReference -> {
+                            ProgressManager.checkCanceled();
+                            if (++visitedReferences > budget.maxReferences) {
+                                exhausted = true;
+                            } else {
+                                verdict[0] = callerVerdict(psiReference);
+                            }
+                            if (exhausted && verdict[0] != Verdict.MULTI_TENANT) {
+                                verdict[0] = Verdict.UNKNOWN;
+                            }
+                            return verdict[0] == Verdict.SINGLE_TENANT;
+                        });
+            } finally {
+                inProgress.remove(method);
+            }
+
+            final boolean dependsOnPendingCaller = lowestPendingDepth < depth;
+            if (verdict[0] == Verdict.MULTI_TENANT || verdict[0] == Verdict.SINGLE_TENANT && !dependsOnPendingCaller) {
+                verdicts.put(method, verdict[0]);
+            }
+            lowestPendingDepth = dependsOnPendingCaller
+                    ? Math.min(outerLowestPendingDepth, lowestPendingDepth)
+                    : outerLowestPendingDepth;
+            return verdict[0];
+        }
+
+        private Verdict callerVerdict(PsiReference psiReference) {
+            final PsiCallExpression psiCallExpression = PsiTreeUtil.getParentOfType(psiReference.getElement(), PsiCallExpression.class);
+            if (psiCallExpression != null && psiCallExpression.getArgumentList() != null
+                    && !psiCallExpression.getArgumentList().isEmpty()) {
+                for (PsiExpression argument : psiCallExpression.getArgumentList().getExpressions()) {
+                    if (argument instanceof PsiMethodCallExpression
+                            && SqlStatementChain.isCompanyScoped((PsiMethodCallExpression) argument)) {
+                        return Verdict.SINGLE_TENANT;
+                    }
+                }
+                return lookupSingleTenantOnCallReferences(psiCallExpression, this);
+            }
+            return Verdict.MULTI_TENANT;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.intellij.codeInspection;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.JavaRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethodCallExpression;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Persistent index of the DAO call sites of the project, keyed by the sql resource path they load,
+ * e.g. {@code dao/find_calls.sql}, with the params every call site binds.
+ * <p>
+ * It lets a sql file find its callers without walking the PSI of the project, see {@link UnboundSqlPlaceHolderInspection}.
+ */
+public class SqlCallSiteIndex extends FileBasedIndexExtension<String, List<SqlCallSiteIndex.CallSite>> {
+    public static final ID<String, List<CallSite>> NAME = ID.create("sql.params.call.sites");
+
+    /**
+     * A call site loading a sql file, and the params bound with literal names to its statement.
+     */
+    public static final class CallSite {
+        private final boolean dynamicParams;
+        private final boolean queryOrUpdateTerminal;
+        private final Set<String> boundParams;
+
+        CallSite(boolean dynamicParams, boolean queryOrUpdateTerminal, @NotNull Set<String> boundParams) {
+            this.dynamicParams = dynamicParams;
+            this.queryOrUpdateTerminal = queryOrUpdateTerminal;
+            this.boundParams = boundParams;
+        }
+
+        /**
+         * @return true if params are also bound with {@code params(...)} or {@code batchUpdate(...)},
+         * so {@link #getBoundParams()} is incomplete
+         */
+        public boolean hasDynamicParams() {
+            return dynamicParams;
+        }
+
+        /**
+         * @return true if the statement is executed by a {@code query*} or {@code update} call within the chain,
+         * otherwise its params may be bound elsewhere, e.g. through a local variable
+         */
+        public boolean hasQueryOrUpdateTerminal() {
+            return queryOrUpdateTerminal;
+        }
+
+        @NotNull
+        public Set<String> getBoundParams() {
+            return boundParams;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CallSite callSite = (CallSite) o;
+            return dynamicParams == callSite.dynamicParams
+                    && queryOrUpdateTerminal == callSite.queryOrUpdateTerminal
+                    && boundParams.equals(callSite.boundParams);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dynamicParams, queryOrUpdateTerminal, boundParams);
+        }
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<CallSite>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<CallSite>, FileContent> getIndexer() {
+        return inputData -> {
+            final CharSequence text = inputData.getContentAsText();
+            // Cheap textual check first, most Java files have no DAO call site at all
+            if (SqlCallSiteSpec.getInstance().getSqlMethodNames().stream().noneMatch(name -> StringUtil.contains(text, name))) {
+                return Collections.emptyMap();
+            }
+            if (!(inputData.getPsiFile() instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+            final Map<String, List<CallSite>> callSites = new HashMap<>();
+            inputData.getPsiFile().accept(new JavaRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitMethodCallExpression(PsiMethodCallExpression expression) {
+                    super.visitMethodCallExpression(expression);
+                    if (SqlCallSites.isSqlCallSite(expression)) {
+                        final SqlStatementChain chain = SqlStatementChain.build(expression);
+                        callSites.computeIfAbsent(chain.getPath(), path -> new ArrayList<>())
+                                .add(new CallSite(chain.hasDynamicParams(), chain.hasQueryOrUpdateTerminal(),
+                                        new LinkedHashSet<>(chain.getParamNames())));
+                    }
+                }
+            });
+            return callSites;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<CallSite>> getValueExternalizer() {
+        return new DataExternalizer<List<CallSite>>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<CallSite> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (CallSite callSite : value) {
+                    out.writeBoolean(callSite.dynamicParams);
+                    out.writeBoolean(callSite.queryOrUpdateTerminal);
+                    DataInputOutputUtil.writeINT(out, callSite.boundParams.size());
+                    for (String param : callSite.boundParams) {
+                        IOUtil.writeUTF(out, param);
+                    }
+                }
+            }
+
+            @Override
+            public List<CallSite> read(@NotNull DataInput in) throws IOException {
+                final int size = DataInputOutputUtil.readINT(in);
+                final List<CallSite> callSites = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    final boolean dynamicParams = in.readBoolean();
+                    final boolean queryOrUpdateTerminal = in.readBoolean();
+                    final int paramCount = DataInputOutputUtil.readINT(in);
+                    final Set<String> boundParams = new LinkedHashSet<>(paramCount);
+                    for (int j = 0; j < paramCount; j++) {
+                        boundParams.add(IOUtil.readUTF(in));
+                    }
+                    callSites.add(new CallSite(dynamicParams, queryOrUpdateTerminal, boundParams));
+                }
+                return callSites;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
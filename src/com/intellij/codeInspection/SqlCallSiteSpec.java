@@ -0,0 +1,90 @@
+package com.intellij.codeInspection;
+
+import com.google.common.collect.ImmutableSet;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.util.ModificationTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes what a DAO call site looks like: the names of the methods loading a sql resource, e.g.
+ * {@code statement("dao/find_calls.sql")}, the names of the methods binding a param to the statement, e.g.
+ * {@code param("userId", userId)}, and the index of the argument holding the sql path.
+ * <p>
+ * Configured under Settings | Tools | SQL Params, see {@link SqlCallSiteSpecConfigurable}.
+ */
+@State(name = "SqlCallSiteSpec", storages = @Storage("sqlParams.xml"))
+public class SqlCallSiteSpec implements PersistentStateComponent<SqlCallSiteSpec.Options>, ModificationTracker {
+
+    public static class Options {
+        public List<String> sqlMethodNames = new ArrayList<>(Arrays.asList(
+                "statement",
+                "statements",
+                "sql",
+                "sqls",
+                "sqlNoLogging"
+        ));
+        public List<String> paramMethodNames = new ArrayList<>(Arrays.asList(
+                "param",
+                "paramNull",
+                "paramArray",
+                "paramLongsArray",
+                "paramStringsArray",
+                "paramEnumNamesArray"
+        ));
+        public int pathArgumentIndex = 0;
+    }
+
+    private Options options = new Options();
+    private volatile Set<String> sqlMethodNames = ImmutableSet.copyOf(options.sqlMethodNames);
+    private volatile Set<String> paramMethodNames = ImmutableSet.copyOf(options.paramMethodNames);
+    private volatile long modificationCount;
+
+    public static SqlCallSiteSpec getInstance() {
+        return ServiceManager.getService(SqlCallSiteSpec.class);
+    }
+
+    @NotNull
+    @Override
+    public Options getState() {
+        return options;
+    }
+
+    @Override
+    public void loadState(@NotNull Options state) {
+        // Only the settings page validates the index, a hand edited or shared sqlParams.xml falls back to the default
+        if (state.pathArgumentIndex < 0) {
+            state.pathArgumentIndex = new Options().pathArgumentIndex;
+        }
+        options = state;
+        sqlMethodNames = ImmutableSet.copyOf(state.sqlMethodNames);
+        paramMethodNames = ImmutableSet.copyOf(state.paramMethodNames);
+        modificationCount++;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    @NotNull
+    public Set<String> getSqlMethodNames() {
+        return sqlMethodNames;
+    }
+
+    @NotNull
+    public Set<String> getParamMethodNames() {
+        return paramMethodNames;
+    }
+
+    public int getPathArgumentIndex() {
+        return options.pathArgumentIndex;
+    }
+}
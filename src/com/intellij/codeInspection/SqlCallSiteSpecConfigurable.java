@@ -0,0 +1,85 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Settings | Tools | SQL Params, edits the {@link SqlCallSiteSpec}.
+ * Applying a change rebuilds the {@link SqlCallSiteIndex} since it is built from the spec.
+ */
+public class SqlCallSiteSpecConfigurable implements Configurable {
+
+    private JBTextField sqlMethodNames;
+    private JBTextField paramMethodNames;
+    private JBTextField pathArgumentIndex;
+
+    @Nls(capitalization = Nls.Capitalization.Title)
+    @Override
+    public String getDisplayName() {
+        return "SQL Params";
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        sqlMethodNames = new JBTextField();
+        paramMethodNames = new JBTextField();
+        pathArgumentIndex = new JBTextField();
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Sql methods (comma separated):", sqlMethodNames)
+                .addLabeledComponent("Param methods (comma separated):", paramMethodNames)
+                .addLabeledComponent("Sql path argument index:", pathArgumentIndex)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        final SqlCallSiteSpec.Options options = SqlCallSiteSpec.getInstance().getState();
+        return !split(sqlMethodNames).equals(options.sqlMethodNames)
+                || !split(paramMethodNames).equals(options.paramMethodNames)
+                || !pathArgumentIndex.getText().trim().equals(String.valueOf(options.pathArgumentIndex));
+    }
+
+    @Override
+    public void apply() throws ConfigurationException {
+        final SqlCallSiteSpec.Options options = new SqlCallSiteSpec.Options();
+        options.sqlMethodNames = split(sqlMethodNames);
+        options.paramMethodNames = split(paramMethodNames);
+        try {
+            options.pathArgumentIndex = Integer.parseInt(pathArgumentIndex.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Sql path argument index must be a number");
+        }
+        if (options.sqlMethodNames.isEmpty() || options.pathArgumentIndex < 0) {
+            throw new ConfigurationException("At least one sql method and a non negative path argument index are required");
+        }
+        SqlCallSiteSpec.getInstance().loadState(options);
+        FileBasedIndex.getInstance().requestRebuild(SqlCallSiteIndex.NAME);
+    }
+
+    @Override
+    public void reset() {
+        final SqlCallSiteSpec.Options options = SqlCallSiteSpec.getInstance().getState();
+        sqlMethodNames.setText(String.join(", ", options.sqlMethodNames));
+        paramMethodNames.setText(String.join(", ", options.paramMethodNames));
+        pathArgumentIndex.setText(String.valueOf(options.pathArgumentIndex));
+    }
+
+    private static List<String> split(JBTextField field) {
+        return StringUtil.split(field.getText(), ",").stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
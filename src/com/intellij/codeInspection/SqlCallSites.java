@@ -0,0 +1,182 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.cache.CacheManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.UsageSearchContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Recognizes DAO call sites loading a sql resource, e.g. {@code statement("dao/find_calls.sql")},
+ * and resolves the sql file they refer to.
+ */
+final class SqlCallSites {
+
+    private SqlCallSites() {
+    }
+
+    static boolean isSqlCallSite(@NotNull PsiCallExpression callExpression) {
+        if (!(callExpression instanceof PsiMethodCallExpression)) {
+            return false;
+        }
+        final SqlCallSiteSpec spec = SqlCallSiteSpec.getInstance();
+        final PsiMethodCallExpression methodCall = (PsiMethodCallExpression) callExpression;
+        final String methodName = methodCall.getMethodExpression().getReferenceName();
+        if (methodName == null || !spec.getSqlMethodNames().contains(methodName)) {
+            return false;
+        }
+        final PsiElement parent = callExpression.getParent();
+        if (parent instanceof PsiReferenceExpression && isBatchUpdate(((PsiReferenceExpression) parent).getReferenceName())) {
+            return false;
+        }
+        return isValidFilePath(findPathArgument(methodCall));
+    }
+
+    /**
+     * @param callExpression a sql call site, see {@link #isSqlCallSite}
+     * @return the literal holding the sql path
+     */
+    @NotNull
+    static PsiLiteralExpression getPathArgument(@NotNull PsiMethodCallExpression callExpression) {
+        return (PsiLiteralExpression) Objects.requireNonNull(findPathArgument(callExpression));
+    }
+
+    /**
+     * @param pathArgument path argument of a sql call site, see {@link #isSqlCallSite}
+     */
+    @NotNull
+    static String getPath(@NotNull PsiElement pathArgument) {
+        return (String) ((PsiLiteralExpression) pathArgument).getValue();
+    }
+
+    /**
+     * Word index based pre-filter: files mentioning none of the sql method names have no sql call site
+     * and need not be visited at all.
+     */
+    static boolean mayContainSqlCallSites(@NotNull PsiFile file) {
+        if (file.getVirtualFile() == null) {
+            return true;
+        }
+        final GlobalSearchScope scope = GlobalSearchScope.fileScope(file);
+        final CacheManager cacheManager = CacheManager.getInstance(file.getProject());
+        for (String methodName : SqlCallSiteSpec.getInstance().getSqlMethodNames()) {
+            if (cacheManager.getVirtualFilesWithWord(methodName, UsageSearchContext.IN_CODE, scope, true).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the files of the scope that may contain sql call sites, see {@link #mayContainSqlCallSites}
+     */
+    @NotNull
+    static Set<VirtualFile> findCandidateFiles(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+        final Set<VirtualFile> files = new HashSet<>();
+        final CacheManager cacheManager = CacheManager.getInstance(project);
+        for (String methodName : SqlCallSiteSpec.getInstance().getSqlMethodNames()) {
+            Collections.addAll(files, cacheManager.getVirtualFilesWithWord(methodName, UsageSearchContext.IN_CODE, scope, true));
+        }
+        return files;
+    }
+
+    /**
+     * @return false if the call site is in no module, e.g. a scratch file or a library source,
+     * so there are no resource roots to resolve its sql path against
+     */
+    static boolean hasResourceRoots(@NotNull PsiElement pathArgument) {
+        return ModuleUtil.findModuleForFile(pathArgument.getContainingFile()) != null;
+    }
+
+    /**
+     * Resolves the sql file in the main resources reachable from the module of the call site,
+     * then in the test ones when the call site is in test sources.
+     */
+    @Nullable
+    static VirtualFile resolveSqlFile(@NotNull PsiElement pathArgument, @NotNull String path) {
+        final PsiFile containingFile = pathArgument.getContainingFile();
+        final Module module = ModuleUtil.findModuleForFile(containingFile);
+        return module != null
+                ? resolveSqlFile(module, containingFile.getVirtualFile(), path)
+                : null;
+    }
+
+    /**
+     * Same as {@link #resolveSqlFile(PsiElement, String)} for a Java file known by the index only.
+     */
+    @Nullable
+    static VirtualFile resolveSqlFile(@NotNull Project project, @NotNull VirtualFile javaFile, @NotNull String path) {
+        final Module module = ProjectFileIndex.getInstance(project).getModuleForFile(javaFile);
+        return module != null ? resolveSqlFile(module, javaFile, path) : null;
+    }
+
+    @Nullable
+    private static VirtualFile resolveSqlFile(@NotNull Module module, @Nullable VirtualFile javaFile, @NotNull String path) {
+        final Project project = module.getProject();
+        final SqlResourceRoots resourceRoots = SqlResourceRoots.getInstance(project);
+        // First check in main
+        VirtualFile sqlFile = resourceRoots.resolve(module, path, false);
+
+        // If not found and file belongs to test then check in test folder
+        if (sqlFile == null && javaFile != null && ProjectFileIndex.getInstance(project).isInTestSourceContent(javaFile)) {
+            sqlFile = resourceRoots.resolve(module, path, true);
+        }
+        return sqlFile != null && sqlFile.exists() ? sqlFile : null;
+    }
+
+    static boolean isParamMethod(@NotNull PsiMethodCallExpression callExpression) {
+        final String methodName = callExpression.getMethodExpression().getReferenceName();
+        return methodName != null && SqlCallSiteSpec.getInstance().getParamMethodNames().contains(methodName);
+    }
+
+    /**
+     * @return the literal naming the param bound by a param method call, e.g. {@code "userId"}
+     * in {@code param("userId", userId)}, or null if the name isn't a string literal
+     */
+    @Nullable
+    static PsiLiteralExpression getParamNameLiteral(@NotNull PsiMethodCallExpression paramCall) {
+        final PsiExpression[] arguments = paramCall.getArgumentList().getExpressions();
+        return arguments.length > 0 && arguments[0] instanceof PsiLiteralExpression
+                && ((PsiLiteralExpression) arguments[0]).getValue() instanceof String
+                ? (PsiLiteralExpression) arguments[0]
+                : null;
+    }
+
+    private static boolean isBatchUpdate(@Nullable String methodName) {
+        return methodName != null && methodName.startsWith("batchUpdate");
+    }
+
+    @Nullable
+    private static PsiExpression findPathArgument(PsiMethodCallExpression callExpression) {
+        final PsiExpression[] arguments = callExpression.getArgumentList().getExpressions();
+        final int index = SqlCallSiteSpec.getInstance().getPathArgumentIndex();
+        return index >= 0 && index < arguments.length ? arguments[index] : null;
+    }
+
+    /**
+     * @return true for a string literal path with a directory and a file name, e.g. {@code "dao/find_calls.sql"}
+     */
+    private static boolean isValidFilePath(@Nullable PsiExpression pathArgument) {
+        if (!(pathArgument instanceof PsiLiteralExpression)) {
+            return false;
+        }
+        final Object value = ((PsiLiteralExpression) pathArgument).getValue();
+        if (!(value instanceof String)) {
+            return false;
+        }
+        final String path = (String) value;
+        final int lastSlash = path.lastIndexOf('/');
+        return lastSlash > 0 && lastSlash < path.length() - 1 && path.indexOf('"') < 0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.intellij.codeInspection;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.startup.StartupActivity;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Alarm;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restarts highlighting of the open DAO files loading a sql file whenever it is edited, created, moved or deleted,
+ * so placeholder changes show up right away without re-analysing every open file. Creating, moving or deleting
+ * a resource directory counts as a change of every sql file under it.
+ * <p>
+ * Changes are collected as sql resource paths, or path prefixes for directories, and coalesced, the dependent
+ * Java files are then found in the {@link SqlCallSiteIndex}.
+ */
+public class SqlChangeRehighlighter implements Disposable {
+
+    private static final int COALESCE_DELAY_MILLIS = 300;
+
+    private final Project project;
+    private final Set<String> changedPaths = ConcurrentHashMap.newKeySet();
+    private final Set<String> changedDirectories = ConcurrentHashMap.newKeySet();
+    private final Alarm alarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
+
+    public SqlChangeRehighlighter(Project project) {
+        this.project = project;
+        EditorFactory.getInstance().getEventMulticaster().addDocumentListener(new DocumentListener() {
+            @Override
+            public void documentChanged(@NotNull DocumentEvent event) {
+                sqlFileChanged(FileDocumentManager.getInstance().getFile(event.getDocument()));
+            }
+        }, this);
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void before(@NotNull List<? extends VFileEvent> events) {
+                // Paths the sql files are leaving
+                for (VFileEvent event : events) {
+                    if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent
+                            || event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                        sqlFileChanged(event.getFile());
+                    }
+                }
+            }
+
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                // Paths the sql files are arriving at, or whose content changed outside of an editor
+                for (VFileEvent event : events) {
+                    if (!(event instanceof VFileDeleteEvent)) {
+                        sqlFileChanged(event.getFile());
+                    }
+                }
+            }
+        });
+    }
+
+    public static SqlChangeRehighlighter getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SqlChangeRehighlighter.class);
+    }
+
+    private void sqlFileChanged(@Nullable VirtualFile file) {
+        if (file == null || !file.isDirectory() && !"sql".equals(file.getExtension()) || project.isDisposed()) {
+            return;
+        }
+        // Documents and VFS events are application wide, sql files of other projects share relative paths with ours
+        if (!ProjectFileIndex.getInstance(project).isInContent(file)) {
+            return;
+        }
+        final String path = SqlResourceRoots.getInstance(project).getResourcePath(file);
+        if (path == null) {
+            return;
+        }
+        final boolean added = file.isDirectory()
+                ? changedDirectories.add(path.isEmpty() ? path : path + "/")
+                : changedPaths.add(path);
+        if (added) {
+            alarm.cancelAllRequests();
+            alarm.addRequest(this::restartDependentFiles, COALESCE_DELAY_MILLIS);
+        }
+    }
+
+    private void restartDependentFiles() {
+        final Set<String> paths = new LinkedHashSet<>(changedPaths);
+        changedPaths.removeAll(paths);
+        final List<String> directories = new ArrayList<>(changedDirectories);
+        changedDirectories.removeAll(directories);
+        final List<PsiFile> dependentFiles = DumbService.getInstance(project).runReadActionInSmartMode(() -> {
+            final List<PsiFile> files = new ArrayList<>();
+            final FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
+            final GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            if (!directories.isEmpty()) {
+                FileBasedIndex.getInstance().processAllKeys(SqlCallSiteIndex.NAME, path -> {
+                    if (directories.stream().anyMatch(path::startsWith)) {
+                        paths.add(path);
+                    }
+                    return true;
+                }, scope, null);
+            }
+            for (String path : paths) {
+                for (VirtualFile javaFile : FileBasedIndex.getInstance().getContainingFiles(SqlCallSiteIndex.NAME, path, scope)) {
+                    // Files which aren't open get highlighted when opened anyway
+                    final PsiFile psiFile = fileEditorManager.isFileOpen(javaFile)
+                            ? PsiManager.getInstance(project).findFile(javaFile)
+                            : null;
+                    if (psiFile != null && !files.contains(psiFile)) {
+                        files.add(psiFile);
+                    }
+                }
+            }
+            return files;
+        });
+        if (!dependentFiles.isEmpty()) {
+            ApplicationManager.getApplication().invokeLater(() -> {
+                final DaemonCodeAnalyzer daemonCodeAnalyzer = DaemonCodeAnalyzer.getInstance(project);
+                for (PsiFile file : dependentFiles) {
+                    if (file.isValid()) {
+                        daemonCodeAnalyzer.restart(file);
+                    }
+                }
+            }, project.getDisposed());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        changedPaths.clear();
+        changedDirectories.clear();
+    }
+
+    /**
+     * Starts listening to sql changes once the project is open.
+     */
+    public static class Starter implements StartupActivity.DumbAware {
+        @Override
+        public void runActivity(@NotNull Project project) {
+            getInstance(project);
+        }
+    }
+}
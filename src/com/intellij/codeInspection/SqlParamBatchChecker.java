@@ -0,0 +1,164 @@
+package com.intellij.codeInspection;
+
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the {@link NonExistingSqlParamInspection} over many Java files at once, e.g. a whole project on CI.
+ * <p>
+ * The sql paths of the DAO call sites are read from the {@link SqlCallSiteIndex} first, without loading any PSI,
+ * so that every referenced sql file is resolved and parsed exactly once. Then the files are checked concurrently,
+ * each one in its own non blocking read action that is restarted rather than delaying a write action.
+ * It must not be called within a read action.
+ */
+public class SqlParamBatchChecker {
+
+    private final Project project;
+    private final NonExistingSqlParamInspection inspection;
+
+    public SqlParamBatchChecker(@NotNull Project project) {
+        this.project = project;
+        this.inspection = configuredInspection(project);
+    }
+
+    @NotNull
+    public static List<VirtualFile> findJavaFiles(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+        return ReadAction.compute(() -> new ArrayList<>(FileTypeIndex.getFiles(JavaFileType.INSTANCE, scope)));
+    }
+
+    /**
+     * Checks the given Java files.
+     *
+     * @param javaFiles files to check
+     * @param indicator progress of the check, cancelling it stops the check
+     * @param consumer  receives the problems of every file having some, once per file, concurrently and within
+     *                  a read action
+     */
+    public void check(@NotNull Collection<VirtualFile> javaFiles,
+                      @NotNull ProgressIndicator indicator,
+                      @NotNull BiConsumer<PsiFile, List<ProblemDescriptor>> consumer) {
+        indicator.setIndeterminate(false);
+        indicator.setText("Collecting DAO call sites");
+        // Files not mentioning any sql method according to the word index are not even loaded
+        final Set<VirtualFile> candidateFiles = ReadAction.compute(() -> SqlCallSites.findCandidateFiles(project,
+                GlobalSearchScope.filesScope(project, javaFiles)));
+        final Set<VirtualFile> sqlFiles = ConcurrentHashMap.newKeySet();
+        forEachConcurrently(candidateFiles, indicator, javaFile -> collectSqlFiles(javaFile, sqlFiles));
+
+        indicator.setText("Parsing sql files");
+        final SqlPlaceHolderCache placeHolderCache = SqlPlaceHolderCache.getInstance(project);
+        forEachConcurrently(sqlFiles, indicator, placeHolderCache::getPlaceHolders);
+
+        indicator.setText("Checking sql params");
+        forEachConcurrently(candidateFiles, indicator, javaFile -> {
+            final PsiFile psiFile = PsiManager.getInstance(project).findFile(javaFile);
+            if (psiFile instanceof PsiJavaFile) {
+                final List<ProblemDescriptor> problems = inspect(psiFile, inspection);
+                if (!problems.isEmpty()) {
+                    return Pair.create(psiFile, problems);
+                }
+            }
+            return null;
+        }, problems -> ReadAction.run(() -> {
+            if (problems.first.isValid()) {
+                consumer.accept(problems.first, problems.second);
+            }
+        }));
+    }
+
+    /**
+     * Runs a local inspection in batch mode over every element of a file, must be called within a read action.
+     */
+    @NotNull
+    public static List<ProblemDescriptor> inspect(@NotNull PsiFile file, @NotNull LocalInspectionTool inspection) {
+        final ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(file.getProject()), file, false);
+        final PsiElementVisitor visitor = inspection.buildVisitor(holder, false);
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                element.accept(visitor);
+                super.visitElement(element);
+            }
+        });
+        return holder.getResults();
+    }
+
+    private void collectSqlFiles(VirtualFile javaFile, Set<VirtualFile> sqlFiles) {
+        for (String path : FileBasedIndex.getInstance().getFileData(SqlCallSiteIndex.NAME, javaFile, project).keySet()) {
+            final VirtualFile sqlFile = SqlCallSites.resolveSqlFile(project, javaFile, path);
+            if (sqlFile != null) {
+                sqlFiles.add(sqlFile);
+            }
+        }
+    }
+
+    private void forEachConcurrently(Collection<VirtualFile> files,
+                                     ProgressIndicator indicator,
+                                     Consumer<VirtualFile> action) {
+        // Restarts are harmless here, the actions only fill shared caches
+        forEachConcurrently(files, indicator, file -> {
+            action.accept(file);
+            return null;
+        }, result -> {
+        });
+    }
+
+    /**
+     * Runs the action on every file concurrently, each time in a non blocking read action that is restarted
+     * whenever a write action is pending. A non null result is handed to the result consumer only once that read
+     * action completed, so a restarted action never delivers the result of a file twice.
+     */
+    private <T> void forEachConcurrently(Collection<VirtualFile> files,
+                                         ProgressIndicator indicator,
+                                         Function<VirtualFile, T> action,
+                                         Consumer<T> resultConsumer) {
+        final List<VirtualFile> list = new ArrayList<>(files);
+        final AtomicInteger done = new AtomicInteger();
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(list, indicator, file -> {
+            final T result = ReadAction.nonBlocking(() -> file.isValid() ? action.apply(file) : null)
+                    .inSmartMode(project)
+                    .executeSynchronously();
+            if (result != null) {
+                resultConsumer.accept(result);
+            }
+            indicator.setFraction((double) done.incrementAndGet() / list.size());
+            return true;
+        });
+    }
+
+    /**
+     * @return the local inspection as configured in the current profile, so the depth and reference bounds of the
+     * tenant search set by the user apply. Visitors are built for batch mode, without the time bound.
+     */
+    @NotNull
+    private static NonExistingSqlParamInspection configuredInspection(Project project) {
+        final InspectionToolWrapper<?, ?> toolWrapper = InspectionProjectProfileManager.getInstance(project)
+                .getCurrentProfile()
+                .getInspectionTool(NonExistingSqlParamInspection.SHORT_NAME, project);
+        return toolWrapper != null && toolWrapper.getTool() instanceof NonExistingSqlParamInspection
+                ? (NonExistingSqlParamInspection) toolWrapper.getTool()
+                : new NonExistingSqlParamInspection();
+    }
+}
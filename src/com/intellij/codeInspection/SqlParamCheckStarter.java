@@ -0,0 +1,112 @@
+package com.intellij.codeInspection;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ex.ApplicationManagerEx;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Headless entry point checking every DAO call site of a project, meant for CI:
+ * <pre>
+ *   idea.sh sqlParamsCheck &lt;project dir&gt; &lt;report.sarif&gt;
+ * </pre>
+ * Exits with 0 when no error is found, 1 when some are (see the SARIF report) and 2 when the check could not run.
+ * <p>
+ * The tenant search runs without its time bound, see {@link NonExistingSqlParamInspection#tenantSearchMaxMillis},
+ * so the report doesn't depend on the machine load. Call sites whose tenant search still ran out of budget have
+ * their companyId checks skipped, their count is printed along with the summary.
+ */
+public class SqlParamCheckStarter implements ApplicationStarter {
+    private static final Logger LOG = Logger.getInstance("#com.intellij.codeInspection.SqlParamCheckStarter");
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_PROBLEMS_FOUND = 1;
+    private static final int EXIT_FAILURE = 2;
+
+    @Override
+    public String getCommandName() {
+        return "sqlParamsCheck";
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        if (args.size() < 3) {
+            System.err.println("Usage: sqlParamsCheck <project dir> <report.sarif>");
+            exit(null, EXIT_FAILURE);
+            return;
+        }
+        final Path projectPath = Paths.get(args.get(1)).toAbsolutePath().normalize();
+        final Path reportPath = Paths.get(args.get(2)).toAbsolutePath().normalize();
+        final Project project = ProjectUtil.openOrImport(projectPath.toString(), null, false);
+        if (project == null) {
+            System.err.println("Could not open project " + projectPath);
+            exit(null, EXIT_FAILURE);
+            return;
+        }
+
+        // Indexing and the checks must not run on the event dispatch thread
+        ApplicationManager.getApplication().executeOnPooledThread(() -> exit(project, check(project, projectPath, reportPath)));
+    }
+
+    /**
+     * Closes the project and exits the application on the event dispatch thread, so settings and indexes are
+     * saved. The application exit always ends with status 0, so other statuses exit the JVM once the project is
+     * closed and the settings are saved. Indexes are then flushed by their shutdown task.
+     */
+    private static void exit(@Nullable Project project, int exitCode) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (project != null && !project.isDisposed()) {
+                ProjectManager.getInstance().closeAndDispose(project);
+            }
+            if (exitCode == EXIT_OK) {
+                ApplicationManagerEx.getApplicationEx().exit(true, true);
+            } else {
+                ApplicationManager.getApplication().saveSettings();
+                System.exit(exitCode);
+            }
+        });
+    }
+
+    private static int check(Project project, Path projectPath, Path reportPath) {
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            final long start = System.currentTimeMillis();
+            final VirtualFile baseDir = LocalFileSystem.getInstance().refreshAndFindFileByPath(projectPath.toString());
+            final List<VirtualFile> javaFiles = SqlParamBatchChecker.findJavaFiles(project, GlobalSearchScope.projectScope(project));
+            final SqlParamMetrics metrics = SqlParamMetrics.getInstance(project);
+            final long budgetExceededBefore = metrics.getCount(SqlParamMetrics.Counter.TENANT_BUDGET_EXCEEDED);
+            final SqlParamSarifReport report = new SqlParamSarifReport();
+            new SqlParamBatchChecker(project).check(javaFiles, new EmptyProgressIndicator(),
+                    (file, descriptors) -> report.add(baseDir, file, descriptors));
+            report.write(reportPath);
+            final long budgetExceeded = metrics.getCount(SqlParamMetrics.Counter.TENANT_BUDGET_EXCEEDED) - budgetExceededBefore;
+            System.out.printf("Checked %d java files in %d ms, %d problems reported to %s%n",
+                    javaFiles.size(), System.currentTimeMillis() - start, report.size(), reportPath);
+            System.out.printf("Tenant search budget exceeded on %d call sites, their companyId checks were skipped%n",
+                    budgetExceeded);
+            return report.hasErrors() ? EXIT_PROBLEMS_FOUND : EXIT_OK;
+        } catch (Throwable e) {
+            LOG.error("Sql params check failed", e);
+            return EXIT_FAILURE;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.intellij.codeInspection;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.reference.RefManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicatorProvider;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Whole scope variant of the {@link NonExistingSqlParamInspection} for Inspect Code and offline runs.
+ * It shares sql parsing and tenant analysis across all DAO files of the scope and checks them concurrently,
+ * see {@link SqlParamBatchChecker}.
+ */
+public class SqlParamGlobalInspection extends GlobalInspectionTool {
+
+    @Override
+    public void runInspection(@NotNull AnalysisScope scope,
+                              @NotNull InspectionManager manager,
+                              @NotNull GlobalInspectionContext globalContext,
+                              @NotNull ProblemDescriptionsProcessor problemDescriptionsProcessor) {
+        final List<VirtualFile> javaFiles = new ArrayList<>();
+        ReadAction.run(() -> scope.accept(file -> {
+            if ("java".equals(file.getExtension())) {
+                javaFiles.add(file);
+            }
+            return true;
+        }));
+
+        final Map<PsiFile, List<ProblemDescriptor>> problems = new ConcurrentHashMap<>();
+        new SqlParamBatchChecker(manager.getProject()).check(javaFiles, currentIndicator(), problems::put);
+
+        final RefManager refManager = globalContext.getRefManager();
+        ReadAction.run(() -> problems.forEach((file, descriptors) -> problemDescriptionsProcessor.addProblemElement(
+                refManager.getReference(file), descriptors.toArray(CommonProblemDescriptor.EMPTY_ARRAY))));
+    }
+
+    @Override
+    public boolean isGraphNeeded() {
+        return false;
+    }
+
+    /**
+     * The batch checker takes its own cancellable read actions per file on worker threads, an outer read action
+     * held for the whole run would keep pending write actions, and so these workers, waiting.
+     */
+    @Override
+    public boolean isReadActionNeeded() {
+        return false;
+    }
+
+    @NotNull
+    private static ProgressIndicator currentIndicator() {
+        final ProgressIndicator indicator = ProgressIndicatorProvider.getGlobalProgressIndicator();
+        return indicator != null ? indicator : new EmptyProgressIndicator();
+    }
+}
@@ -0,0 +1,182 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Instrumentation of the sql params inspection: time spent per phase, event counters and time spent per DAO file.
+ * <p>
+ * Recording only adds to striped counters so it is cheap enough for the highlighting path.
+ * Every recorded phase is also logged when debug is enabled for {@code #com.intellij.codeInspection.SqlParamMetrics}.
+ */
+public class SqlParamMetrics {
+    private static final Logger LOG = Logger.getInstance("#com.intellij.codeInspection.SqlParamMetrics");
+    private static final int SLOWEST_FILES_REPORTED = 20;
+
+    public enum Phase {
+        /**
+         * Per file check that the file may hold DAO call sites at all. The name check of every call expression
+         * is not timed, reading the clock would cost about as much.
+         */
+        CALL_SITE_FILTERING,
+        SQL_RESOLUTION,
+        SQL_LOADING,
+        TENANT_ANALYSIS,
+        PROBLEM_MARKING,
+        /**
+         * Background parsing of every sql resource at project open, see {@link SqlPlaceHolderWarmUp}.
+         */
+        WARM_UP
+    }
+
+    public enum Counter {
+        CALL_SITES_VISITED,
+        SQL_FILES_RESOLVED,
+        SQL_FILES_MISSING,
+        SQL_PATH_CACHE_HITS,
+        PLACE_HOLDER_CACHE_HITS,
+        PLACE_HOLDER_CACHE_MISSES,
+        SQL_FILES_STREAMED,
+        REFERENCE_SEARCHES,
+        TENANT_VERDICT_CACHE_HITS,
+        TENANT_BUDGET_EXCEEDED
+    }
+
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final ConcurrentMap<VirtualFile, LongAdder> fileNanos = new ConcurrentHashMap<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public SqlParamMetrics() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+            phaseCounts.put(phase, new LongAdder());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    public static SqlParamMetrics getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SqlParamMetrics.class);
+    }
+
+    /**
+     * Records a phase which started at the given {@link System#nanoTime()}.
+     *
+     * @return the current nano time, so consecutive phases can be chained
+     */
+    public long record(@NotNull Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        long elapsed = now - startNanos;
+        phaseNanos.get(phase).add(elapsed);
+        phaseCounts.get(phase).increment();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("%s took %d us", phase, TimeUnit.NANOSECONDS.toMicros(elapsed)));
+        }
+        return now;
+    }
+
+    public void increment(@NotNull Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    /**
+     * Adds the time spent on a call site to its DAO file. Files are keyed as is, paths are only built for reports.
+     */
+    public void recordFile(@Nullable PsiFile file, long startNanos) {
+        VirtualFile virtualFile = file != null ? file.getVirtualFile() : null;
+        if (virtualFile != null) {
+            fileNanos.computeIfAbsent(virtualFile, key -> new LongAdder()).add(System.nanoTime() - startNanos);
+        }
+    }
+
+    public long getCount(@NotNull Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    public long getNanos(@NotNull Phase phase) {
+        return phaseNanos.get(phase).sum();
+    }
+
+    public void reset() {
+        phaseNanos.values().forEach(LongAdder::reset);
+        phaseCounts.values().forEach(LongAdder::reset);
+        counters.values().forEach(LongAdder::reset);
+        fileNanos.clear();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    @NotNull
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Since ").append(new Date(sinceMillis)).append("\n\nPhases:\n");
+        for (Phase phase : Phase.values()) {
+            sb.append(String.format("  %-22s %8d calls %10.1f ms%n", phase, phaseCounts.get(phase).sum(),
+                    phaseNanos.get(phase).sum() / 1_000_000.0));
+        }
+        sb.append("\nCounters:\n");
+        for (Counter counter : Counter.values()) {
+            sb.append(String.format("  %-26s %10d%n", counter, counters.get(counter).sum()));
+        }
+        sb.append("\nSlowest DAO files:\n");
+        for (Map.Entry<String, Long> file : slowestFiles()) {
+            sb.append(String.format("  %10.1f ms  %s%n", file.getValue() / 1_000_000.0, file.getKey()));
+        }
+        return sb.toString();
+    }
+
+    @NotNull
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"sinceMillis\": ").append(sinceMillis).append(",\n  \"phases\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            sb.append(separator).append("    \"").append(phase.name()).append("\": {\"count\": ")
+                    .append(phaseCounts.get(phase).sum()).append(", \"nanos\": ")
+                    .append(phaseNanos.get(phase).sum()).append('}');
+            separator = ",\n";
+        }
+        sb.append("\n  },\n  \"counters\": {");
+        separator = "\n";
+        for (Counter counter : Counter.values()) {
+            sb.append(separator).append("    \"").append(counter.name()).append("\": ").append(counters.get(counter).sum());
+            separator = ",\n";
+        }
+        sb.append("\n  },\n  \"slowestFiles\": [");
+        separator = "\n";
+        for (Map.Entry<String, Long> file : slowestFiles()) {
+            sb.append(separator).append("    {\"path\": \"").append(StringUtil.escapeStringCharacters(file.getKey()))
+                    .append("\", \"nanos\": ").append(file.getValue()).append('}');
+            separator = ",\n";
+        }
+        return sb.append("\n  ]\n}\n").toString();
+    }
+
+    private List<Map.Entry<String, Long>> slowestFiles() {
+        return fileNanos.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<VirtualFile, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_FILES_REPORTED)
+                .map(entry -> Map.entry(entry.getKey().getPath(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SARIF 2.1.0 report of the problems found by a batch run, readable by CI code scanning tools.
+ */
+public class SqlParamSarifReport {
+
+    public static class Finding {
+        private final String path;
+        private final int line;
+        private final int column;
+        private final String message;
+        private final boolean error;
+
+        Finding(String path, int line, int column, String message, boolean error) {
+            this.path = path;
+            this.line = line;
+            this.column = column;
+            this.message = message;
+            this.error = error;
+        }
+
+        public boolean isError() {
+            return error;
+        }
+    }
+
+    private final List<Finding> findings = new ArrayList<>();
+
+    /**
+     * Adds the problems of a file, must be called within a read action.
+     *
+     * @param baseDir directory locations are made relative to, absolute paths are reported without one
+     */
+    public synchronized void add(@Nullable VirtualFile baseDir, @NotNull PsiFile file, @NotNull List<ProblemDescriptor> descriptors) {
+        final VirtualFile virtualFile = file.getVirtualFile();
+        final String relativePath = baseDir != null ? VfsUtilCore.getRelativePath(virtualFile, baseDir) : null;
+        final String path = relativePath != null ? relativePath : virtualFile.getPath();
+        final Document document = PsiDocumentManager.getInstance(file.getProject()).getDocument(file);
+        for (ProblemDescriptor descriptor : descriptors) {
+            final PsiElement element = descriptor.getPsiElement();
+            if (element == null || document == null) {
+                continue;
+            }
+            final TextRange rangeInElement = descriptor.getTextRangeInElement();
+            final int offset = element.getTextRange().getStartOffset() + (rangeInElement != null ? rangeInElement.getStartOffset() : 0);
+            final int line = document.getLineNumber(offset);
+            findings.add(new Finding(path, line + 1, offset - document.getLineStartOffset(line) + 1,
+                    descriptor.getDescriptionTemplate().replace("#ref", element.getText()),
+                    descriptor.getHighlightType() != ProblemHighlightType.WARNING));
+        }
+    }
+
+    public synchronized boolean hasErrors() {
+        return findings.stream().anyMatch(Finding::isError);
+    }
+
+    public synchronized int size() {
+        return findings.size();
+    }
+
+    public synchronized void write(@NotNull Path output) throws IOException {
+        findings.sort(Comparator.<Finding, String>comparing(finding -> finding.path)
+                .thenComparingInt(finding -> finding.line)
+                .thenComparingInt(finding -> finding.column));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("{\n"
+                    + "  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n"
+                    + "  \"version\": \"2.1.0\",\n"
+                    + "  \"runs\": [{\n"
+                    + "    \"tool\": {\"driver\": {\"name\": \"SQL Params Qualifier\", \"rules\": [{\"id\": \""
+                    + NonExistingSqlParamInspection.SHORT_NAME + "\"}]}},\n"
+                    + "    \"results\": [");
+            String separator = "\n";
+            for (Finding finding : findings) {
+                writer.write(separator);
+                writer.write("      {\"ruleId\": \"" + NonExistingSqlParamInspection.SHORT_NAME + "\", "
+                        + "\"level\": \"" + (finding.error ? "error" : "warning") + "\", "
+                        + "\"message\": {\"text\": \"" + StringUtil.escapeStringCharacters(finding.message) + "\"}, "
+                        + "\"locations\": [{\"physicalLocation\": {"
+                        + "\"artifactLocation\": {\"uri\": \"" + StringUtil.escapeStringCharacters(finding.path) + "\"}, "
+                        + "\"region\": {\"startLine\": " + finding.line + ", \"startColumn\": " + finding.column + "}}}]}");
+                separator = ",\n";
+            }
+            writer.write("\n    ]\n  }]\n}\n");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Project level cache of the placeholders declared in sql resource files.
+ * Entries are keyed on the sql file and dropped as soon as its modification stamp changes,
+ * so every DAO call pointing at the same unchanged file shares a single parse.
+ * Entries of sql files, or of directories holding them, are evicted when they are deleted, moved or renamed.
+ */
+public class SqlPlaceHolderCache implements Disposable {
+    private static final Logger LOG = Logger.getInstance("#com.intellij.codeInspection.SqlPlaceHolderCache");
+
+    private final ConcurrentMap<VirtualFile, Entry> entries = new ConcurrentHashMap<>();
+    private final SqlParamMetrics metrics;
+
+    public SqlPlaceHolderCache(Project project) {
+        metrics = SqlParamMetrics.getInstance(project);
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void before(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent
+                            || event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                        evict(event.getFile());
+                    }
+                }
+            }
+        });
+    }
+
+    public static SqlPlaceHolderCache getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SqlPlaceHolderCache.class);
+    }
+
+    /**
+     * Returns the distinct placeholders declared in the given sql file, in declaration order.
+     * <p>
+     * A file with a loaded document, e.g. open in an editor, is parsed from the document and keyed on its stamp
+     * so unsaved edits are honored. Any other file is streamed from disk through the lexer window, without
+     * loading a document or its whole text.
+     *
+     * @param sqlFile sql resource file
+     * @return placeholder names, or null if the file can't be read
+     */
+    @Nullable
+    public SqlPlaceHolderSet getPlaceHolders(@NotNull VirtualFile sqlFile) {
+        Document document = FileDocumentManager.getInstance().getCachedDocument(sqlFile);
+        long stamp = document != null ? document.getModificationStamp() : sqlFile.getModificationStamp();
+        Entry entry = entries.get(sqlFile);
+        if (entry != null && entry.stamp == stamp) {
+            metrics.increment(SqlParamMetrics.Counter.PLACE_HOLDER_CACHE_HITS);
+            return entry.placeHolders;
+        }
+        metrics.increment(SqlParamMetrics.Counter.PLACE_HOLDER_CACHE_MISSES);
+        SqlPlaceHolderSet placeHolders;
+        if (document != null) {
+            placeHolders = SqlPlaceHolderSet.parse(document.getImmutableCharSequence());
+        } else {
+            metrics.increment(SqlParamMetrics.Counter.SQL_FILES_STREAMED);
+            try (Reader reader = new InputStreamReader(
+                    VfsUtilCore.inputStreamSkippingBOM(sqlFile.getInputStream(), sqlFile), sqlFile.getCharset())) {
+                placeHolders = SqlPlaceHolderSet.parse(reader);
+            } catch (IOException e) {
+                LOG.warn("Could not read " + sqlFile.getPath(), e);
+                return null;
+            }
+        }
+        entries.put(sqlFile, new Entry(stamp, placeHolders));
+        return placeHolders;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void dispose() {
+        entries.clear();
+    }
+
+    private void evict(@Nullable VirtualFile file) {
+        if (file == null || entries.isEmpty()) {
+            return;
+        }
+        if (file.isDirectory()) {
+            entries.keySet().removeIf(sqlFile -> VfsUtilCore.isAncestor(file, sqlFile, false));
+        } else {
+            entries.remove(file);
+        }
+    }
+
+    private static class Entry {
+        private final long stamp;
+        private final SqlPlaceHolderSet placeHolders;
+
+        private Entry(long stamp, SqlPlaceHolderSet placeHolders) {
+            this.stamp = stamp;
+            this.placeHolders = placeHolders;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.intellij.codeInspection;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses every sql resource of the project in the background once indexing is done, so the first highlighting
+ * pass of DAO files finds resource roots and placeholders already cached instead of loading them one call site
+ * at a time.
+ * <p>
+ * Files are parsed concurrently, each in a non blocking read action which gives way to any write action,
+ * e.g. typing, and is retried afterwards. Progress shows in the status bar and the task can be cancelled.
+ * The duration is logged and recorded as {@link SqlParamMetrics.Phase#WARM_UP}.
+ */
+public class SqlPlaceHolderWarmUp implements StartupActivity.DumbAware {
+    private static final Logger LOG = Logger.getInstance("#com.intellij.codeInspection.SqlPlaceHolderWarmUp");
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        DumbService.getInstance(project).runWhenSmart(() -> {
+            if (!project.isDisposed()) {
+                new Task.Backgroundable(project, "Warming up SQL params", true) {
+                    @Override
+                    public void run(@NotNull ProgressIndicator indicator) {
+                        warmUp(project, indicator);
+                    }
+                }.queue();
+            }
+        });
+    }
+
+    private static void warmUp(Project project, ProgressIndicator indicator) {
+        final long start = System.nanoTime();
+        indicator.setIndeterminate(true);
+        indicator.setText("Collecting sql resources");
+        final List<VirtualFile> sqlFiles = ReadAction.nonBlocking(() -> collectSqlFiles(project))
+                .inSmartMode(project)
+                .expireWhen(project::isDisposed)
+                .executeSynchronously();
+
+        indicator.setIndeterminate(false);
+        indicator.setText("Parsing sql placeholders");
+        final SqlPlaceHolderCache placeHolderCache = SqlPlaceHolderCache.getInstance(project);
+        final AtomicInteger done = new AtomicInteger();
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(sqlFiles, indicator, sqlFile -> {
+            ReadAction.nonBlocking(() -> {
+                if (sqlFile.isValid()) {
+                    placeHolderCache.getPlaceHolders(sqlFile);
+                }
+            })
+                    .expireWhen(project::isDisposed)
+                    .executeSynchronously();
+            indicator.setFraction((double) done.incrementAndGet() / sqlFiles.size());
+            return true;
+        });
+
+        final long end = SqlParamMetrics.getInstance(project).record(SqlParamMetrics.Phase.WARM_UP, start);
+        LOG.info(String.format("Warmed up %d sql files in %d ms", sqlFiles.size(), TimeUnit.NANOSECONDS.toMillis(end - start)));
+    }
+
+    private static List<VirtualFile> collectSqlFiles(Project project) {
+        final Set<VirtualFile> sqlFiles = new LinkedHashSet<>();
+        for (VirtualFile root : SqlResourceRoots.getInstance(project).getAllRoots()) {
+            if (root.isValid()) {
+                VfsUtilCore.iterateChildrenRecursively(root, null, file -> {
+                    ProgressManager.checkCanceled();
+                    if (!file.isDirectory() && "sql".equals(file.getExtension())) {
+                        sqlFiles.add(file);
+                    }
+                    return true;
+                });
+            }
+        }
+        return new ArrayList<>(sqlFiles);
+    }
+}
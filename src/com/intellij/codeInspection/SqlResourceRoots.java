@@ -0,0 +1,256 @@
+package com.intellij.codeInspection;
+
+import com.intellij.ProjectTopics;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.model.java.JavaResourceRootType;
+import org.jetbrains.jps.model.module.JpsModuleSourceRootType;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves sql resource paths against the resource roots of a module and of the modules it depends on.
+ * <p>
+ * The ordered resource roots of every module are computed once, from its resource source roots plus the
+ * conventional {@code src/<main|test>/resources} folders, and so are the resolved paths, missing ones included.
+ * Everything is dropped on root changes. When sql files or directories are created, moved or deleted in the content
+ * of a module, only that module and the modules depending on it are dropped, changes anywhere else are ignored.
+ */
+public class SqlResourceRoots implements Disposable {
+
+    private static final String SQL_EXTENSION = "sql";
+
+    private final ConcurrentMap<Module, ModuleRoots> moduleRoots = new ConcurrentHashMap<>();
+    private final Project project;
+    private final SqlParamMetrics metrics;
+
+    public SqlResourceRoots(Project project) {
+        this.project = project;
+        metrics = SqlParamMetrics.getInstance(project);
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(ProjectTopics.PROJECT_ROOTS, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                moduleRoots.clear();
+            }
+        });
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void before(@NotNull List<? extends VFileEvent> events) {
+                // Files leaving their place are located while they are still valid
+                for (VFileEvent event : events) {
+                    if ((event instanceof VFileDeleteEvent || event instanceof VFileMoveEvent || isRename(event))
+                            && mayChangeResolution(event)) {
+                        evictModuleOf(event.getFile());
+                    }
+                }
+            }
+
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (event instanceof VFileCreateEvent && mayChangeResolution(event)) {
+                        evictModuleOf(((VFileCreateEvent) event).getParent());
+                    } else if (event instanceof VFileCopyEvent && mayChangeResolution(event)) {
+                        evictModuleOf(((VFileCopyEvent) event).getNewParent());
+                    } else if (event instanceof VFileMoveEvent && mayChangeResolution(event)) {
+                        evictModuleOf(((VFileMoveEvent) event).getNewParent());
+                    }
+                }
+            }
+        });
+    }
+
+    public static SqlResourceRoots getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, SqlResourceRoots.class);
+    }
+
+    /**
+     * Resolves a sql resource path in the main resources of the module and its dependencies,
+     * or in their test resources.
+     *
+     * @param module module of the DAO referring to the sql file
+     * @param path   path of the sql file relative to a resource root
+     * @param test   true to look in test resources
+     * @return the sql file, or null if no resource root contains it
+     */
+    @Nullable
+    public VirtualFile resolve(@NotNull Module module, @NotNull String path, boolean test) {
+        return moduleRoots.computeIfAbsent(module, ModuleRoots::new).resolve(path, test, metrics);
+    }
+
+    /**
+     * @return every main and test resource root sql paths are resolved against, over all modules of the project
+     */
+    @NotNull
+    public Set<VirtualFile> getAllRoots() {
+        Set<VirtualFile> roots = new LinkedHashSet<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            ModuleRoots resolvedRoots = moduleRoots.computeIfAbsent(module, ModuleRoots::new);
+            roots.addAll(resolvedRoots.mainRoots);
+            roots.addAll(resolvedRoots.testRoots);
+        }
+        return roots;
+    }
+
+    /**
+     * Reverse of {@link #resolve}: the path DAOs use to refer to a sql file.
+     *
+     * @return the path of the file relative to its resource root, or null if it is not under one
+     */
+    @Nullable
+    public String getResourcePath(@NotNull VirtualFile sqlFile) {
+        VirtualFile sourceRoot = ProjectFileIndex.getInstance(project).getSourceRootForFile(sqlFile);
+        if (sourceRoot != null) {
+            return VfsUtilCore.getRelativePath(sqlFile, sourceRoot);
+        }
+        for (VirtualFile dir = sqlFile.getParent(); dir != null; dir = dir.getParent()) {
+            if (isConventionalRoot(dir)) {
+                return VfsUtilCore.getRelativePath(sqlFile, dir);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void dispose() {
+        moduleRoots.clear();
+    }
+
+    /**
+     * Drops the roots of the module whose content holds the given file and of the modules depending on it.
+     */
+    private void evictModuleOf(@Nullable VirtualFile file) {
+        if (file == null || moduleRoots.isEmpty()) {
+            return;
+        }
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        if (!fileIndex.isInContent(file)) {
+            return;
+        }
+        Module module = fileIndex.getModuleForFile(file);
+        if (module == null) {
+            moduleRoots.clear();
+        } else {
+            moduleRoots.values().removeIf(roots -> roots.modules.contains(module));
+        }
+    }
+
+    private static boolean isRename(VFileEvent event) {
+        return event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename();
+    }
+
+    private static boolean mayChangeResolution(VFileEvent event) {
+        if (event instanceof VFileCreateEvent) {
+            VFileCreateEvent createEvent = (VFileCreateEvent) event;
+            return createEvent.isDirectory() || isSqlFileName(createEvent.getChildName());
+        }
+        if (event instanceof VFilePropertyChangeEvent) {
+            VFilePropertyChangeEvent propertyChangeEvent = (VFilePropertyChangeEvent) event;
+            return propertyChangeEvent.isRename() && (propertyChangeEvent.getFile().isDirectory()
+                    || isSqlFileName(String.valueOf(propertyChangeEvent.getOldValue()))
+                    || isSqlFileName(String.valueOf(propertyChangeEvent.getNewValue())));
+        }
+        if (event instanceof VFileMoveEvent || event instanceof VFileCopyEvent || event instanceof VFileDeleteEvent) {
+            VirtualFile file = event.getFile();
+            return file == null || file.isDirectory() || isSqlFileName(file.getName());
+        }
+        return false;
+    }
+
+    private static boolean isConventionalRoot(VirtualFile dir) {
+        VirtualFile container = dir.getParent();
+        return "resources".equals(dir.getName()) && container != null
+                && ("main".equals(container.getName()) || "test".equals(container.getName()))
+                && container.getParent() != null && "src".equals(container.getParent().getName());
+    }
+
+    private static boolean isSqlFileName(String fileName) {
+        return fileName.endsWith("." + SQL_EXTENSION);
+    }
+
+    private static class ModuleRoots {
+        // The module and its transitive dependencies
+        private final Set<Module> modules = new LinkedHashSet<>();
+        private final List<VirtualFile> mainRoots;
+        private final List<VirtualFile> testRoots;
+        private final ConcurrentMap<String, Optional<VirtualFile>> resolvedMain = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Optional<VirtualFile>> resolvedTest = new ConcurrentHashMap<>();
+
+        private ModuleRoots(Module module) {
+            // The module itself comes first, then its transitive dependencies
+            ModuleUtilCore.getDependencies(module, modules);
+            mainRoots = collectRoots(modules, JavaResourceRootType.RESOURCE, "main");
+            testRoots = collectRoots(modules, JavaResourceRootType.TEST_RESOURCE, "test");
+        }
+
+        @Nullable
+        private VirtualFile resolve(String path, boolean test, SqlParamMetrics metrics) {
+            ConcurrentMap<String, Optional<VirtualFile>> resolved = test ? resolvedTest : resolvedMain;
+            Optional<VirtualFile> sqlFile = resolved.get(path);
+            if (sqlFile == null || sqlFile.isPresent() && !sqlFile.get().isValid()) {
+                sqlFile = Optional.ofNullable(findFile(test ? testRoots : mainRoots, path));
+                resolved.put(path, sqlFile);
+            } else {
+                metrics.increment(SqlParamMetrics.Counter.SQL_PATH_CACHE_HITS);
+            }
+            return sqlFile.orElse(null);
+        }
+
+        @Nullable
+        private static VirtualFile findFile(List<VirtualFile> roots, String path) {
+            for (VirtualFile root : roots) {
+                if (root.isValid()) {
+                    VirtualFile file = root.findFileByRelativePath(path);
+                    if (file != null && !file.isDirectory()) {
+                        return file;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static List<VirtualFile> collectRoots(Set<Module> modules,
+                                                      JpsModuleSourceRootType<?> rootType,
+                                                      String resourceContainer) {
+            String conventionalPath = "src/" + resourceContainer + "/resources";
+            Set<VirtualFile> roots = new LinkedHashSet<>();
+            for (Module module : modules) {
+                ModuleRootManager rootManager = ModuleRootManager.getInstance(module);
+                roots.addAll(rootManager.getSourceRoots(rootType));
+                for (VirtualFile contentRoot : rootManager.getContentRoots()) {
+                    addIfExists(roots, contentRoot.findFileByRelativePath(conventionalPath));
+                }
+                VirtualFile moduleFile = module.getModuleFile();
+                if (moduleFile != null) {
+                    addIfExists(roots, moduleFile.getParent().findFileByRelativePath(conventionalPath));
+                }
+            }
+            return new ArrayList<>(roots);
+        }
+
+        private static void addIfExists(Set<VirtualFile> roots, @Nullable VirtualFile root) {
+            if (root != null && root.isDirectory()) {
+                roots.add(root);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Model of the fluent chain built around a sql call site, e.g.
+ * <pre>
+ *   dao.statement("dao/find_calls.sql").param("userId", userId).param("from", from).query(mapper)
+ * </pre>
+ * It is built in a single walk up from the sql call and shared by every check of the call site, see {@link #of}.
+ */
+public final class SqlStatementChain {
+
+    private static final String COMPANY = "company";
+
+    private static final Key<CachedValue<ConcurrentMap<PsiMethodCallExpression, SqlStatementChain>>> CHAINS =
+            Key.create("sql.params.statement.chains");
+
+    private final PsiMethodCallExpression call;
+    private final PsiLiteralExpression pathLiteral;
+    private final List<String> paramNames;
+    private final List<PsiLiteralExpression> paramAnchors;
+    private final boolean dynamicParams;
+    private final boolean queryOrUpdateTerminal;
+    private final boolean companyScoped;
+
+    private SqlStatementChain(PsiMethodCallExpression call,
+                              List<String> paramNames,
+                              List<PsiLiteralExpression> paramAnchors,
+                              boolean dynamicParams,
+                              boolean queryOrUpdateTerminal,
+                              boolean companyScoped) {
+        this.call = call;
+        this.pathLiteral = SqlCallSites.getPathArgument(call);
+        this.paramNames = paramNames;
+        this.paramAnchors = paramAnchors;
+        this.dynamicParams = dynamicParams;
+        this.queryOrUpdateTerminal = queryOrUpdateTerminal;
+        this.companyScoped = companyScoped;
+    }
+
+    /**
+     * Returns the model of a sql call site, cached on the top expression of its chain until the next PSI change.
+     *
+     * @param call a sql call site, see {@link SqlCallSites#isSqlCallSite}
+     */
+    @NotNull
+    public static SqlStatementChain of(@NotNull PsiMethodCallExpression call) {
+        final PsiExpression top = getTopExpression(call);
+        return CachedValuesManager.getManager(call.getProject()).getCachedValue(top, CHAINS,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(),
+                        PsiModificationTracker.MODIFICATION_COUNT, SqlCallSiteSpec.getInstance()),
+                false)
+                .computeIfAbsent(call, SqlStatementChain::build);
+    }
+
+    /**
+     * Builds the model without caching it, e.g. while indexing.
+     */
+    @NotNull
+    public static SqlStatementChain build(@NotNull PsiMethodCallExpression call) {
+        final List<String> paramNames = new ArrayList<>();
+        final List<PsiLiteralExpression> paramAnchors = new ArrayList<>();
+        boolean dynamicParams = false;
+        boolean queryOrUpdateTerminal = false;
+        boolean companyScoped = isCompanyQualified(call);
+        boolean insideClass = true;
+        for (PsiElement parent = call.getParent(); parent != null && !(parent instanceof PsiFile); parent = parent.getParent()) {
+            if (parent instanceof PsiClass) {
+                // Params and company scoping belong to the enclosing class, terminals may be further up
+                insideClass = false;
+            } else if (parent instanceof PsiReferenceExpression) {
+                final String name = ((PsiReferenceExpression) parent).getReferenceName();
+                if (name != null) {
+                    dynamicParams |= name.startsWith("batchUpdate") || name.startsWith("params");
+                    queryOrUpdateTerminal |= name.startsWith("query") || name.equals("update");
+                }
+            } else if (insideClass && parent instanceof PsiMethodCallExpression) {
+                final PsiMethodCallExpression methodCall = (PsiMethodCallExpression) parent;
+                companyScoped |= COMPANY.equals(methodCall.getMethodExpression().getReferenceName());
+                if (SqlCallSites.isParamMethod(methodCall)) {
+                    final PsiLiteralExpression nameLiteral = SqlCallSites.getParamNameLiteral(methodCall);
+                    if (nameLiteral != null) {
+                        paramNames.add((String) nameLiteral.getValue());
+                        paramAnchors.add(nameLiteral);
+                    }
+                }
+            }
+        }
+        return new SqlStatementChain(call, paramNames, paramAnchors, dynamicParams, queryOrUpdateTerminal, companyScoped);
+    }
+
+    /**
+     * @return true if the call or one of its enclosing calls is {@code company(...)}, which scopes it to a single tenant
+     */
+    static boolean isCompanyScoped(@NotNull PsiMethodCallExpression call) {
+        for (PsiElement parent = call; parent != null && !(parent instanceof PsiClass); parent = parent.getParent()) {
+            if (parent instanceof PsiMethodCallExpression
+                    && COMPANY.equals(((PsiMethodCallExpression) parent).getMethodExpression().getReferenceName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the qualifier chain of the call mentions {@code company}, e.g. {@code company(id).statement(...)}
+     */
+    private static boolean isCompanyQualified(PsiMethodCallExpression call) {
+        PsiExpression qualifier = call.getMethodExpression();
+        while (qualifier != null) {
+            if (qualifier instanceof PsiMethodCallExpression) {
+                qualifier = ((PsiMethodCallExpression) qualifier).getMethodExpression();
+            }
+            if (!(qualifier instanceof PsiReferenceExpression)) {
+                return false;
+            }
+            if (COMPANY.equals(((PsiReferenceExpression) qualifier).getReferenceName())) {
+                return true;
+            }
+            qualifier = ((PsiReferenceExpression) qualifier).getQualifierExpression();
+        }
+        return false;
+    }
+
+    private static PsiExpression getTopExpression(PsiMethodCallExpression call) {
+        PsiExpression top = call;
+        PsiElement parent = call.getParent();
+        while (parent instanceof PsiExpression || parent instanceof PsiExpressionList) {
+            if (parent instanceof PsiExpression) {
+                top = (PsiExpression) parent;
+            }
+            parent = parent.getParent();
+        }
+        return top;
+    }
+
+    @NotNull
+    public PsiMethodCallExpression getCall() {
+        return call;
+    }
+
+    @NotNull
+    public PsiLiteralExpression getPathLiteral() {
+        return pathLiteral;
+    }
+
+    @NotNull
+    public String getPath() {
+        return SqlCallSites.getPath(pathLiteral);
+    }
+
+    /**
+     * @return names of the params bound with a literal name, innermost first
+     */
+    @NotNull
+    public List<String> getParamNames() {
+        return Collections.unmodifiableList(paramNames);
+    }
+
+    /**
+     * @return literal naming the param at the given index of {@link #getParamNames()}
+     */
+    @NotNull
+    public PsiLiteralExpression getParamAnchor(int index) {
+        return paramAnchors.get(index);
+    }
+
+    /**
+     * @return true if params are also bound with {@code params(...)} or {@code batchUpdate(...)}
+     */
+    public boolean hasDynamicParams() {
+        return dynamicParams;
+    }
+
+    /**
+     * @return true if the chain is executed by a {@code query*} or {@code update} call
+     */
+    public boolean hasQueryOrUpdateTerminal() {
+        return queryOrUpdateTerminal;
+    }
+
+    /**
+     * @return true if the chain runs on a {@code company(...)} db access, i.e. a single tenant one
+     */
+    public boolean isCompanyScoped() {
+        return companyScoped;
+    }
+}
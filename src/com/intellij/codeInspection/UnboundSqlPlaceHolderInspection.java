@@ -0,0 +1,82 @@
+package com.intellij.codeInspection;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Reverse check of the {@link NonExistingSqlParamInspection}, run inside sql resource files:
+ * reports the placeholders none of the DAO call sites loading the file binds.
+ * <p>
+ * Callers are looked up in the {@link SqlCallSiteIndex} and kept only when the path they load resolves to this
+ * very file from their module. Files without callers are not reported, nor are files with a caller whose bound params
+ * the {@link NonExistingSqlParamInspection} does not check either: params bound dynamically, no param bound with a
+ * literal name or no {@code query*}/{@code update} terminal in the chain.
+ */
+public class UnboundSqlPlaceHolderInspection extends LocalInspectionTool {
+
+    @NonNls
+    private static final String UNBOUND_PLACE_HOLDER = "No caller binds the placeholder :%s";
+
+    private static final String COMPANY_ID = "companyId";
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        final VirtualFile sqlFile = file.getVirtualFile();
+        if (sqlFile == null || !"sql".equals(sqlFile.getExtension())) {
+            return null;
+        }
+        final Project project = file.getProject();
+        final String path = SqlResourceRoots.getInstance(project).getResourcePath(sqlFile);
+        if (path == null) {
+            return null;
+        }
+
+        final Map<VirtualFile, List<SqlCallSiteIndex.CallSite>> callSites = new LinkedHashMap<>();
+        FileBasedIndex.getInstance().processValues(SqlCallSiteIndex.NAME, path, null, (javaFile, fileCallSites) -> {
+            callSites.put(javaFile, fileCallSites);
+            return true;
+        }, GlobalSearchScope.projectScope(project));
+        // The same path may resolve to another file from the modules of some callers, those don't call this one
+        callSites.keySet().removeIf(javaFile -> !sqlFile.equals(SqlCallSites.resolveSqlFile(project, javaFile, path)));
+        if (callSites.isEmpty()) {
+            return null;
+        }
+        final Set<String> boundParams = new HashSet<>();
+        // Single tenant statements get companyId from their tenant, not from a param. Telling them apart takes the
+        // caller walk of the NonExistingSqlParamInspection, out of reach of index entries, so it is never reported
+        boundParams.add(COMPANY_ID);
+        for (List<SqlCallSiteIndex.CallSite> fileCallSites : callSites.values()) {
+            for (SqlCallSiteIndex.CallSite callSite : fileCallSites) {
+                // Same conditions as the missing placeholders check of the call site, its params are incomplete
+                if (callSite.hasDynamicParams()
+                        || !callSite.hasQueryOrUpdateTerminal()
+                        || callSite.getBoundParams().isEmpty()) {
+                    return null;
+                }
+                boundParams.addAll(callSite.getBoundParams());
+            }
+        }
+
+        final List<ProblemDescriptor> problems = new ArrayList<>();
+        SqlPlaceHolderLexer.scan(file.getViewProvider().getContents(), (sql, start, end) -> {
+            final String placeHolder = sql.subSequence(start, end).toString();
+            if (!boundParams.contains(placeHolder)) {
+                // Highlight the leading colon as well
+                problems.add(manager.createProblemDescriptor(file, new TextRange(start - 1, end),
+                        String.format(UNBOUND_PLACE_HOLDER, placeHolder),
+                        ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+            }
+        });
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+}
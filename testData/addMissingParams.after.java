@@ -0,0 +1,17 @@
+import dao.Db;
+
+class CallDao {
+    private final Db db;
+
+    CallDao(Db db) {
+        this.db = db;
+    }
+
+    Object findCallsInRange(long userId, String from) {
+        return db.statement("dao/find_calls_in_range.sql")
+                .param("userId", userId)
+                .param("from", from)
+                .param("to", null)
+                .query();
+    }
+}
@@ -0,0 +1,15 @@
+import dao.Db;
+
+class CallDao {
+    private final Db db;
+
+    CallDao(Db db) {
+        this.db = db;
+    }
+
+    Object findCallsInRange(long userId, String from) {
+        return db.<caret>statement("dao/find_calls_in_range.sql")
+                .param("userId", userId)
+                .query();
+    }
+}
@@ -0,0 +1,35 @@
+import dao.Db;
+
+class CallDao {
+    private final Db db;
+
+    CallDao(Db db) {
+        this.db = db;
+    }
+
+    Object findCalls(long companyId, long userId) {
+        return db.company(companyId).statement("dao/find_calls.sql")
+                .param("companyId", companyId)
+                .param("userId", userId)
+                .query();
+    }
+
+    Object findUserCalls(long companyId, long userId) {
+        return db.company(companyId).sql("dao/find_calls.sql")
+                .param("userId", userId)
+                .param("companyId", companyId)
+                .query();
+    }
+
+    Object findCallsInRange(long userId, String from, String to) {
+        return db.statement("dao/find_calls_in_range.sql")
+                .param("userId", userId)
+                .update();
+    }
+
+    Object findCallsFrom(String from) {
+        return db.sqlNoLogging("dao/find_calls_in_range.sql")
+                .param("from", from)
+                .query();
+    }
+}
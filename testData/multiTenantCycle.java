@@ -0,0 +1,22 @@
+import dao.Db;
+
+class CallDao {
+    private final Object allCalls = findCalls(new Db(), 0L, 3);
+
+    Object findCalls(Db db, long userId, int retries) {
+        if (retries > 0) {
+            return retry(db, userId, retries - 1);
+        }
+        return db.statement("dao/find_calls.sql")
+                .param("userId", userId)
+                .query();
+    }
+
+    Object retry(Db db, long userId, int retries) {
+        return findCalls(db, userId, retries);
+    }
+
+    Object findCompanyCalls(Db db, long companyId, long userId) {
+        return retry(db.company(companyId), userId, 3);
+    }
+}
@@ -0,0 +1,16 @@
+import dao.Db;
+
+class CallDao {
+    private final Db db;
+
+    CallDao(Db db) {
+        this.db = db;
+    }
+
+    Object findCalls(long companyId, long userId) {
+        return db.company(companyId).statement("dao/find_calls.sql")
+                .param("<caret>companyId", companyId)
+                .param("userId", userId)
+                .query();
+    }
+}
@@ -0,0 +1,22 @@
+import dao.Db;
+
+class CallDao {
+
+    Object findCalls(Db db, long companyId, long userId, int retries) {
+        if (retries > 0) {
+            return retry(db, companyId, userId, retries - 1);
+        }
+        return db.statement("dao/find_calls.sql")
+                .param("companyId", companyId)
+                .param("userId", userId)
+                .query();
+    }
+
+    Object retry(Db db, long companyId, long userId, int retries) {
+        return findCalls(db, companyId, userId, retries);
+    }
+
+    Object findCompanyCalls(Db db, long companyId, long userId) {
+        return retry(db.company(companyId), companyId, userId, 3);
+    }
+}
@@ -0,0 +1,63 @@
+import dao.Db;
+
+class CallDao {
+
+    Object helper0(Db db, long companyId, long userId) {
+        return db.statement("dao/find_calls.sql")
+                .param("companyId", companyId)
+                .param("userId", userId)
+                .query();
+    }
+
+    Object helper1(Db db, long companyId, long userId) {
+        return helper0(db, companyId, userId);
+    }
+
+    Object helper2(Db db, long companyId, long userId) {
+        return helper1(db, companyId, userId);
+    }
+
+    Object helper3(Db db, long companyId, long userId) {
+        return helper2(db, companyId, userId);
+    }
+
+    Object helper4(Db db, long companyId, long userId) {
+        return helper3(db, companyId, userId);
+    }
+
+    Object helper5(Db db, long companyId, long userId) {
+        return helper4(db, companyId, userId);
+    }
+
+    Object helper6(Db db, long companyId, long userId) {
+        return helper5(db, companyId, userId);
+    }
+
+    Object helper7(Db db, long companyId, long userId) {
+        return helper6(db, companyId, userId);
+    }
+
+    Object helper8(Db db, long companyId, long userId) {
+        return helper7(db, companyId, userId);
+    }
+
+    Object helper9(Db db, long companyId, long userId) {
+        return helper8(db, companyId, userId);
+    }
+
+    Object helper10(Db db, long companyId, long userId) {
+        return helper9(db, companyId, userId);
+    }
+
+    Object helper11(Db db, long companyId, long userId) {
+        return helper10(db, companyId, userId);
+    }
+
+    Object helper12(Db db, long companyId, long userId) {
+        return helper11(db, companyId, userId);
+    }
+
+    Object findCompanyCalls(Db db, long companyId, long userId) {
+        return helper12(db.company(companyId), companyId, userId);
+    }
+}
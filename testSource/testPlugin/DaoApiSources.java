@@ -0,0 +1,38 @@
+package testPlugin;
+
+/**
+ * Sources of the small db access API DAO fixtures are written against: {@code dao.Db} creating statements,
+ * plain or company scoped, and {@code dao.Statement} binding params and running them.
+ */
+final class DaoApiSources {
+
+    static final String[] PARAM_METHODS = {
+            "param", "paramNull", "paramArray", "paramLongsArray", "paramStringsArray", "paramEnumNamesArray"
+    };
+
+    private DaoApiSources() {
+    }
+
+    static String dbClass() {
+        return "package dao;\n"
+                + "\n"
+                + "public class Db {\n"
+                + "    public Db company(long companyId) { return this; }\n"
+                + "    public Statement statement(String path) { return new Statement(); }\n"
+                + "    public Statement sql(String path) { return new Statement(); }\n"
+                + "    public Statement sqlNoLogging(String path) { return new Statement(); }\n"
+                + "}\n";
+    }
+
+    static String statementClass() {
+        final StringBuilder text = new StringBuilder("package dao;\n\npublic class Statement {\n");
+        for (String paramMethod : PARAM_METHODS) {
+            text.append("    public Statement ").append(paramMethod).append("(String name, Object value) { return this; }\n");
+        }
+        return text.append("    public Statement params(java.util.Map<String, ?> params) { return this; }\n")
+                .append("    public Object query() { return null; }\n")
+                .append("    public int update() { return 0; }\n")
+                .append("}\n")
+                .toString();
+    }
+}
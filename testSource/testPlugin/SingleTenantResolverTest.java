@@ -0,0 +1,58 @@
+package testPlugin;
+
+import com.intellij.codeInspection.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Caller walks of the {@link SingleTenantResolver} seen through the companyId problems of the
+ * {@link NonExistingSqlParamInspection}: a single tenant call site binding companyId gets "Remove redundant companyId",
+ * a multi tenant one not binding it gets companyId reported missing, an unknown one gets neither.
+ * <p>
+ * The inspection runs in batch mode, so verdicts don't depend on the time budget.
+ */
+public class SingleTenantResolverTest extends SqlParamsFixtureTestCase {
+
+    private static final String REMOVE_REDUNDANT_COMPANY_ID = "Remove redundant companyId";
+    private static final String BEYOND_MAX_DEPTH = "tenantHelpersBeyondMaxDepth.java";
+
+    public void testSingleTenantCycle() {
+        myFixture.configureByFile("singleTenantCycle.java");
+        assertEquals(Collections.singletonList(REMOVE_REDUNDANT_COMPANY_ID),
+                descriptions(new NonExistingSqlParamInspection()));
+    }
+
+    public void testMultiTenantCycle() {
+        myFixture.configureByFile("multiTenantCycle.java");
+        assertEquals(Collections.singletonList("Missing the following placeholders in params:\n companyId"),
+                descriptions(new NonExistingSqlParamInspection()));
+    }
+
+    public void testTenantHelpersBeyondMaxDepth() {
+        myFixture.configureByFile(BEYOND_MAX_DEPTH);
+        assertEmpty(descriptions(new NonExistingSqlParamInspection()));
+    }
+
+    public void testTenantHelpersBeyondMaxReferences() {
+        myFixture.configureByFile(BEYOND_MAX_DEPTH);
+        final NonExistingSqlParamInspection inspection = new NonExistingSqlParamInspection();
+        inspection.tenantSearchMaxDepth = 20;
+        inspection.tenantSearchMaxReferences = 5;
+        assertEmpty(descriptions(inspection));
+    }
+
+    public void testTenantHelpersWithinBudget() {
+        myFixture.configureByFile(BEYOND_MAX_DEPTH);
+        final NonExistingSqlParamInspection inspection = new NonExistingSqlParamInspection();
+        inspection.tenantSearchMaxDepth = 20;
+        assertEquals(Collections.singletonList(REMOVE_REDUNDANT_COMPANY_ID), descriptions(inspection));
+    }
+
+    private List<String> descriptions(NonExistingSqlParamInspection inspection) {
+        return findProblems(inspection).stream()
+                .map(ProblemDescriptor::getDescriptionTemplate)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package testPlugin;
+
+import com.intellij.codeInspection.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Before and after files of the quick fixes of the {@link NonExistingSqlParamInspection}, applied one at a time
+ * from the editor and all at once as a {@link BatchQuickFix}.
+ */
+public class SqlParamQuickFixTest extends SqlParamsFixtureTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.enableInspections(NonExistingSqlParamInspection.class);
+    }
+
+    public void testRemoveRedundantCompanyId() {
+        doTest("Remove redundant companyId");
+    }
+
+    public void testAddMissingParams() {
+        doTest("Add params from, to");
+    }
+
+    public void testBatchFixes() {
+        myFixture.configureByFile("batchFixes.java");
+        applyBatchFix("Remove redundant companyId");
+        applyBatchFix("Add missing params");
+        myFixture.checkResultByFile("batchFixes.after.java");
+    }
+
+    private void doTest(String fixName) {
+        myFixture.configureByFile(getTestName(true) + ".java");
+        myFixture.launchAction(myFixture.findSingleIntention(fixName));
+        myFixture.checkResultByFile(getTestName(true) + ".after.java");
+    }
+
+    /**
+     * Applies the fix of the given family to every problem of the file having one, in a single batch.
+     */
+    @SuppressWarnings("unchecked")
+    private void applyBatchFix(String familyName) {
+        final List<CommonProblemDescriptor> descriptors = new ArrayList<>();
+        BatchQuickFix<CommonProblemDescriptor> batchFix = null;
+        for (ProblemDescriptor descriptor : findProblems(new NonExistingSqlParamInspection())) {
+            final QuickFix<?>[] fixes = descriptor.getFixes();
+            if (fixes == null) {
+                continue;
+            }
+            for (QuickFix<?> fix : fixes) {
+                if (fix.getFamilyName().equals(familyName)) {
+                    assertInstanceOf(fix, BatchQuickFix.class);
+                    descriptors.add(descriptor);
+                    batchFix = (BatchQuickFix<CommonProblemDescriptor>) fix;
+                }
+            }
+        }
+        assertEquals(familyName, 2, descriptors.size());
+        batchFix.applyFix(getProject(), descriptors.toArray(new CommonProblemDescriptor[0]), new ArrayList<>(), null);
+    }
+}
@@ -0,0 +1,40 @@
+package testPlugin;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.SqlParamBatchChecker;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.List;
+
+/**
+ * Light fixture holding the {@link DaoApiSources} and two sql files, {@code dao/find_calls.sql} with the companyId
+ * and userId placeholders and {@code dao/find_calls_in_range.sql} with the userId, from and to placeholders.
+ * DAO sources are read from {@code testData}.
+ */
+abstract class SqlParamsFixtureTestCase extends LightJavaCodeInsightFixtureTestCase {
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData";
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addClass(DaoApiSources.dbClass());
+        myFixture.addClass(DaoApiSources.statementClass());
+        // The content root of the light module is its source root, the conventional resources folder lies under it
+        myFixture.addFileToProject("src/main/resources/dao/find_calls.sql",
+                "select * from calls where company_id = :companyId and user_id = :userId");
+        myFixture.addFileToProject("src/main/resources/dao/find_calls_in_range.sql",
+                "select * from calls where user_id = :userId and started >= :from and started < :to");
+    }
+
+    /**
+     * @return problems of the configured file, found the way batch runs find them
+     */
+    protected List<ProblemDescriptor> findProblems(LocalInspectionTool inspection) {
+        return SqlParamBatchChecker.inspect(myFixture.getFile(), inspection);
+    }
+}
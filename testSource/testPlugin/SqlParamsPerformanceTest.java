@@ -0,0 +1,259 @@
+package testPlugin;
+
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.codeInspection.NonExistingSqlParamInspection;
+import com.intellij.codeInspection.SqlParamBatchChecker;
+import com.intellij.codeInspection.SqlPlaceHolderCache;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootModificationUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.UsefulTestCase;
+import com.intellij.testFramework.builders.JavaModuleFixtureBuilder;
+import com.intellij.testFramework.fixtures.*;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Correctness and latency of the {@link NonExistingSqlParamInspection} over a generated multi module DAO project,
+ * see {@link SqlParamsProjectGenerator}. Timing budgets are scaled to the machine by {@link PlatformTestUtil},
+ * exceeding one fails the test.
+ * <p>
+ * Runs as a JUnit test on the IU-203 plugin SDK, from the project directory so that {@code testData} resolves.
+ * {@code testSource} is not a source root of the plugin module, so that a Make of the plugin does not compile it,
+ * until the suite has been compiled and run against that SDK.
+ * <p>
+ * The default budgets have not been measured yet. Every budget can be set from the times the performance test log
+ * reports on the CI machine with a {@code sqlParams.perf.<name>Ms} system property, see {@link #budget}.
+ */
+public class SqlParamsPerformanceTest extends UsefulTestCase {
+
+    private static final int MODULES = 6;
+    private static final int DAO_FILES_PER_MODULE = 10;
+    private static final int CALL_SITES_PER_DAO_FILE = 40;
+    private static final int CALL_SITES_OF_LARGE_DAO_FILE = 400;
+
+    private static final int FULL_FILE_HIGHLIGHTING_BUDGET_MS = budget("fullFileHighlighting", 4000);
+    private static final int REHIGHLIGHTING_AFTER_EDIT_BUDGET_MS = budget("rehighlightingAfterEdit", 1000);
+    private static final int WHOLE_PROJECT_CHECK_BUDGET_MS = budget("wholeProjectCheck", 20000);
+    private static final long WHOLE_PROJECT_CHECK_TIMEOUT_MS = 10L * WHOLE_PROJECT_CHECK_BUDGET_MS;
+
+    private static final String LARGE_DAO_FILE = "module1/src/main/java/dao/m1/LargeDao.java";
+    private static final String SEEDED_DAO_FILE = "module1/src/main/java/dao/m1/SeededProblems.java";
+
+    private CodeInsightTestFixture myFixture;
+    private final List<JavaModuleFixtureBuilder<?>> moduleBuilders = new ArrayList<>();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final TestFixtureBuilder<IdeaProjectTestFixture> projectBuilder =
+                IdeaTestFixtureFactory.getFixtureFactory().createFixtureBuilder(getName());
+        myFixture = JavaTestFixtureFactory.getFixtureFactory().createCodeInsightFixture(projectBuilder.getFixture());
+        for (int module = 0; module < MODULES; module++) {
+            final String contentRoot = myFixture.getTempDirPath() + "/" + SqlParamsProjectGenerator.moduleDir(module);
+            Files.createDirectories(Paths.get(contentRoot, "src/main/java"));
+            Files.createDirectories(Paths.get(contentRoot, "src/main/resources"));
+            final JavaModuleFixtureBuilder<?> moduleBuilder = projectBuilder.addModule(JavaModuleFixtureBuilder.class);
+            moduleBuilder.addContentRoot(contentRoot).addSourceRoot("src/main/java");
+            moduleBuilder.setMockJdkLevel(JavaModuleFixtureBuilder.MockJdkLevel.jdk15);
+            moduleBuilders.add(moduleBuilder);
+        }
+        myFixture.setUp();
+        myFixture.enableInspections(NonExistingSqlParamInspection.class);
+        generateProject();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            myFixture.tearDown();
+        } catch (Throwable e) {
+            addSuppressedException(e);
+        } finally {
+            myFixture = null;
+            moduleBuilders.clear();
+            super.tearDown();
+        }
+    }
+
+    public void testSeededProblemsAreReported() {
+        myFixture.configureFromTempProjectFile(SEEDED_DAO_FILE);
+        final List<String> descriptions = myFixture.doHighlighting().stream()
+                .filter(info -> info.getSeverity().compareTo(HighlightSeverity.WEAK_WARNING) >= 0)
+                .map(HighlightInfo::getDescription)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                "Missing the following placeholders in params:\n p1",
+                "No placeholder in sql for bogus",
+                "Remove redundant companyId",
+                "Sql file does not exists"
+        ), descriptions);
+    }
+
+    public void testGeneratedDaoFilesHaveNoProblems() {
+        myFixture.configureFromTempProjectFile(LARGE_DAO_FILE);
+        assertEmpty(errorsAndWarnings());
+        myFixture.configureFromTempProjectFile("module2/src/main/java/dao/m2/TenantHelpers.java");
+        assertEmpty(errorsAndWarnings());
+    }
+
+    public void testWholeProjectCheckPerformance() {
+        final Project project = myFixture.getProject();
+        final Map<String, Integer> problems = new ConcurrentHashMap<>();
+        PlatformTestUtil.startPerformanceTest("whole project sql params check", WHOLE_PROJECT_CHECK_BUDGET_MS, () -> {
+            problems.clear();
+            // The checker takes its own read actions, it must not run on the event dispatch thread the test runs on
+            PlatformTestUtil.waitForFuture(ApplicationManager.getApplication().executeOnPooledThread(() ->
+                    new SqlParamBatchChecker(project).check(
+                            SqlParamBatchChecker.findJavaFiles(project, GlobalSearchScope.projectScope(project)),
+                            new EmptyProgressIndicator(),
+                            (file, descriptors) -> problems.put(file.getName(), descriptors.size()))),
+                    WHOLE_PROJECT_CHECK_TIMEOUT_MS);
+        })
+                .setup(() -> dropCaches(project))
+                .usesAllCPUCores()
+                .attempts(2)
+                .assertTiming();
+        assertEquals(Map.of("SeededProblems.java", 4), problems);
+    }
+
+    public void testFullFileHighlightingPerformance() {
+        final Project project = myFixture.getProject();
+        myFixture.configureFromTempProjectFile(LARGE_DAO_FILE);
+        PlatformTestUtil.startPerformanceTest("full highlighting of a DAO file", FULL_FILE_HIGHLIGHTING_BUDGET_MS,
+                () -> myFixture.doHighlighting())
+                .setup(() -> dropCaches(project))
+                .attempts(3)
+                .assertTiming();
+    }
+
+    public void testRehighlightingAfterEditPerformance() {
+        myFixture.configureFromTempProjectFile(LARGE_DAO_FILE);
+        myFixture.doHighlighting();
+        final Document document = myFixture.getEditor().getDocument();
+        final int offset = document.getText().indexOf("public Object call0(");
+        PlatformTestUtil.startPerformanceTest("highlighting of a DAO file after an edit", REHIGHLIGHTING_AFTER_EDIT_BUDGET_MS,
+                () -> myFixture.doHighlighting())
+                .setup(() -> WriteCommandAction.runWriteCommandAction(myFixture.getProject(), () -> {
+                    document.insertString(offset, " ");
+                    PsiDocumentManager.getInstance(myFixture.getProject()).commitDocument(document);
+                }))
+                .attempts(5)
+                .assertTiming();
+        assertEmpty(errorsAndWarnings());
+    }
+
+    private List<HighlightInfo> errorsAndWarnings() {
+        return myFixture.doHighlighting().stream()
+                .filter(info -> info.getSeverity().compareTo(HighlightSeverity.WEAK_WARNING) >= 0)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the {@code sqlParams.perf.<name>Ms} system property, or the default budget if it is not set
+     */
+    private static int budget(String name, int defaultMillis) {
+        return Integer.getInteger("sqlParams.perf." + name + "Ms", defaultMillis);
+    }
+
+    private static void dropCaches(Project project) {
+        SqlPlaceHolderCache.getInstance(project).clear();
+        PsiManager.getInstance(project).dropPsiCaches();
+    }
+
+    private void generateProject() {
+        final SqlParamsProjectGenerator generator = new SqlParamsProjectGenerator();
+        final Module apiModule = moduleBuilders.get(0).getFixture().getModule();
+        myFixture.addFileToProject(javaPath(0, "dao/Db.java"), DaoApiSources.dbClass());
+        myFixture.addFileToProject(javaPath(0, "dao/Statement.java"), DaoApiSources.statementClass());
+
+        for (int module = 0; module < MODULES; module++) {
+            final String moduleDir = SqlParamsProjectGenerator.moduleDir(module);
+            for (int sqlFile = 0; sqlFile < SqlParamsProjectGenerator.SQL_FILES_PER_MODULE; sqlFile++) {
+                myFixture.addFileToProject(moduleDir + "/src/main/resources/" + SqlParamsProjectGenerator.sqlPath(module, sqlFile),
+                        generator.sqlFile(sqlFile));
+            }
+            final String packageName = "dao.m" + module;
+            final String packagePath = "dao/m" + module + "/";
+            for (int daoFile = 0; daoFile < DAO_FILES_PER_MODULE; daoFile++) {
+                // Every other DAO loads sql files of the API module, through the module dependency
+                final int sqlModule = daoFile % 2 == 0 ? module : 0;
+                myFixture.addFileToProject(javaPath(module, packagePath + "Dao" + daoFile + ".java"),
+                        generator.daoClass(packageName, "Dao" + daoFile, CALL_SITES_PER_DAO_FILE, sqlModule));
+            }
+            myFixture.addFileToProject(javaPath(module, packagePath + "TenantHelpers.java"),
+                    generator.tenantHelpersClass(packageName, module));
+            if (module > 0) {
+                ModuleRootModificationUtil.addDependency(moduleBuilders.get(module).getFixture().getModule(), apiModule);
+            }
+        }
+
+        myFixture.addFileToProject(LARGE_DAO_FILE,
+                generator.daoClass("dao.m1", "LargeDao", CALL_SITES_OF_LARGE_DAO_FILE, 1));
+        myFixture.addFileToProject(SEEDED_DAO_FILE, seededProblems());
+    }
+
+    private static String javaPath(int module, String path) {
+        return SqlParamsProjectGenerator.moduleDir(module) + "/src/main/java/" + path;
+    }
+
+    /**
+     * Call sites over {@code m1/q0.sql}, whose placeholders are companyId, p0 and p1.
+     */
+    private static String seededProblems() {
+        return "package dao.m1;\n"
+                + "\n"
+                + "import dao.Db;\n"
+                + "\n"
+                + "public class SeededProblems {\n"
+                + "    private final Db db;\n"
+                + "\n"
+                + "    public SeededProblems(Db db) {\n"
+                + "        this.db = db;\n"
+                + "    }\n"
+                + "\n"
+                + "    Object unknownParam() {\n"
+                + "        return db.statement(\"m1/q0.sql\").param(\"companyId\", 1L).param(\"p0\", null).param(\"p1\", null)\n"
+                + "                .param(\"bogus\", null).query();\n"
+                + "    }\n"
+                + "\n"
+                + "    Object missingParam() {\n"
+                + "        return db.sql(\"m1/q0.sql\").param(\"companyId\", 1L).paramNull(\"p0\", null).query();\n"
+                + "    }\n"
+                + "\n"
+                + "    Object missingFile() {\n"
+                + "        return db.sqlNoLogging(\"m1/does_not_exist.sql\").param(\"p0\", null).query();\n"
+                + "    }\n"
+                + "\n"
+                + "    Object redundantCompanyId() {\n"
+                + "        return db.company(1L).statement(\"m1/q0.sql\").param(\"companyId\", 1L).param(\"p0\", null)\n"
+                + "                .param(\"p1\", null).query();\n"
+                + "    }\n"
+                + "\n"
+                + "    Object singleTenant() {\n"
+                + "        return db.company(1L).statement(\"m1/q0.sql\").param(\"p0\", null).param(\"p1\", null).query();\n"
+                + "    }\n"
+                + "\n"
+                + "    Object dynamicParams(java.util.Map<String, ?> params) {\n"
+                + "        return db.statement(\"m1/q0.sql\").param(\"p0\", null).params(params).query();\n"
+                + "    }\n"
+                + "}\n";
+    }
+}
@@ -0,0 +1,122 @@
+package testPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the sources of a synthetic DAO project over the {@link DaoApiSources}: sql resources of 512 bytes
+ * to 256 KB and DAO classes binding every placeholder of the sql they load through {@code statement}, {@code sql} and
+ * {@code sqlNoLogging} call sites with {@code param*} chains, plus a deep chain of tenant helper methods.
+ * <p>
+ * Every generated call site is correct, so the inspection must not report anything on generated DAO files.
+ * Paths are relative to the content root of a module.
+ */
+final class SqlParamsProjectGenerator {
+
+    static final int SQL_FILES_PER_MODULE = 30;
+    static final int TENANT_HELPER_DEPTH = 6;
+
+    private static final String[] SQL_METHODS = {"statement", "sql", "sqlNoLogging"};
+    private static final int[] SQL_SIZES = {512, 4096, 32768, 262144};
+
+    private final Random random = new Random(42L);
+
+    static String moduleDir(int module) {
+        return "module" + module;
+    }
+
+    static String sqlPath(int module, int sqlFile) {
+        return "m" + module + "/q" + sqlFile + ".sql";
+    }
+
+    /**
+     * @return placeholders of a generated sql file, {@code companyId} included
+     */
+    static List<String> placeHolders(int sqlFile) {
+        final List<String> placeHolders = new ArrayList<>();
+        placeHolders.add("companyId");
+        for (int i = 0; i < 2 + sqlFile % 6; i++) {
+            placeHolders.add("p" + i);
+        }
+        return placeHolders;
+    }
+
+    /**
+     * @return a sql selecting the placeholders of the file, padded with comments, casts and quoted colons
+     * which must not be taken for placeholders
+     */
+    String sqlFile(int sqlFile) {
+        final int size = SQL_SIZES[sqlFile % SQL_SIZES.length];
+        final StringBuilder text = new StringBuilder("-- generated :notAPlaceHolder\nselect t.id, t.payload::jsonb\nfrom t\nwhere 1 = 1\n");
+        for (String placeHolder : placeHolders(sqlFile)) {
+            text.append("  and t.").append(placeHolder).append(" = :").append(placeHolder).append('\n');
+        }
+        while (text.length() < size) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    text.append("/* filler :commented ").append(random.nextInt()).append(" */\n");
+                    break;
+                case 1:
+                    text.append("  and t.label <> 'quoted :colon ").append(random.nextInt()).append("'\n");
+                    break;
+                default:
+                    text.append("  and t.created_at::date > now()::date - ").append(random.nextInt(100)).append('\n');
+            }
+        }
+        return text.append(";\n").toString();
+    }
+
+    /**
+     * @param sqlModule module whose resources hold the sql files, the DAO module itself or the API module
+     */
+    String daoClass(String packageName, String className, int callSites, int sqlModule) {
+        final StringBuilder text = new StringBuilder("package ").append(packageName).append(";\n\n")
+                .append("import dao.Db;\n\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    private final Db db;\n\n")
+                .append("    public ").append(className).append("(Db db) {\n")
+                .append("        this.db = db;\n")
+                .append("    }\n");
+        for (int i = 0; i < callSites; i++) {
+            final int sqlFile = random.nextInt(SQL_FILES_PER_MODULE);
+            text.append("\n    public Object call").append(i).append("(long companyId) {\n")
+                    .append("        return db.").append(SQL_METHODS[i % SQL_METHODS.length])
+                    .append("(\"").append(sqlPath(sqlModule, sqlFile)).append("\")");
+            for (String placeHolder : placeHolders(sqlFile)) {
+                text.append("\n                .").append(DaoApiSources.PARAM_METHODS[random.nextInt(DaoApiSources.PARAM_METHODS.length)])
+                        .append("(\"").append(placeHolder).append("\", ").append(placeHolder.equals("companyId") ? "companyId" : "null")
+                        .append(')');
+            }
+            text.append(i % 2 == 0 ? "\n                .query();\n" : "\n                .update();\n").append("    }\n");
+        }
+        return text.append("}\n").toString();
+    }
+
+    /**
+     * @return helpers receiving the db access as a parameter, called from each other down to an entry point
+     * scoping it to a company, so the innermost call site is single tenant and binds no companyId
+     */
+    String tenantHelpersClass(String packageName, int sqlModule) {
+        final List<String> placeHolders = placeHolders(0);
+        final StringBuilder text = new StringBuilder("package ").append(packageName).append(";\n\n")
+                .append("import dao.Db;\n\n")
+                .append("public class TenantHelpers {\n")
+                .append("    Object helper0(Db db) {\n")
+                .append("        return db.statement(\"").append(sqlPath(sqlModule, 0)).append("\")");
+        for (String placeHolder : placeHolders.subList(1, placeHolders.size())) {
+            text.append("\n                .param(\"").append(placeHolder).append("\", null)");
+        }
+        text.append("\n                .query();\n    }\n");
+        for (int depth = 1; depth <= TENANT_HELPER_DEPTH; depth++) {
+            text.append("\n    Object helper").append(depth).append("(Db db) {\n")
+                    .append("        return helper").append(depth - 1).append("(db);\n")
+                    .append("    }\n");
+        }
+        return text.append("\n    Object entry(Db db) {\n")
+                .append("        return helper").append(TENANT_HELPER_DEPTH).append("(db.company(1L));\n")
+                .append("    }\n")
+                .append("}\n")
+                .toString();
+    }
+}